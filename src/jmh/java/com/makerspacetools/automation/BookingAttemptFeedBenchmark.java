@@ -0,0 +1,134 @@
+package com.makerspacetools.automation;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Concurrent add and list throughput of the lock-free attempt feed against the synchronized deque it replaced.
+ * <p>
+ * Three threads append while one thread reads the newest 50 attempts, as the UI does when it polls the feed.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookingAttemptFeedBenchmark {
+
+    private static final int FEED_SIZE = 200;
+    private static final int LIST_LIMIT = 50;
+    private static final int ATTEMPTS = 4096;
+
+    @State(Scope.Group)
+    public static class Feed {
+
+        @Param({"ring", "synchronized"})
+        public String implementation;
+
+        AttemptLog log;
+        BookingAttempt[] attempts;
+
+        @Setup(Level.Iteration)
+        public void setUp() {
+            log = "ring".equals(implementation) ? new RingLog(FEED_SIZE) : new SynchronizedLog(FEED_SIZE);
+            UUID[] jobIds = {UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID()};
+            attempts = new BookingAttempt[ATTEMPTS];
+            for (int i = 0; i < ATTEMPTS; i++) {
+                attempts[i] = BookingAttempt.builder().jobId(jobIds[i % jobIds.length]).success(i % 3 == 0).build();
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+
+        int next;
+    }
+
+    @Benchmark
+    @Group("feed")
+    @GroupThreads(3)
+    public void add(Feed feed, Cursor cursor) {
+        feed.log.add(feed.attempts[cursor.next++ & (ATTEMPTS - 1)]);
+    }
+
+    @Benchmark
+    @Group("feed")
+    @GroupThreads(1)
+    public List<BookingAttempt> list(Feed feed) {
+        return feed.log.newest(LIST_LIMIT);
+    }
+
+    interface AttemptLog {
+
+        void add(BookingAttempt attempt);
+
+        List<BookingAttempt> newest(int limit);
+    }
+
+    static final class RingLog implements AttemptLog {
+
+        private final BookingAttemptFeed feed;
+
+        RingLog(int capacity) {
+            this.feed = new BookingAttemptFeed(capacity);
+        }
+
+        @Override
+        public void add(BookingAttempt attempt) {
+            feed.add(attempt);
+        }
+
+        @Override
+        public List<BookingAttempt> newest(int limit) {
+            return feed.newest(limit);
+        }
+    }
+
+    /**
+     * The in-memory part of the former {@code BookingAttemptLogger}.
+     */
+    static final class SynchronizedLog implements AttemptLog {
+
+        private final Deque<BookingAttempt> attempts;
+        private final int maxEntries;
+
+        SynchronizedLog(int maxEntries) {
+            this.attempts = new ArrayDeque<>();
+            this.maxEntries = maxEntries;
+        }
+
+        @Override
+        public void add(BookingAttempt attempt) {
+            synchronized (this) {
+                attempts.addFirst(attempt);
+                while (attempts.size() > maxEntries) {
+                    attempts.removeLast();
+                }
+            }
+        }
+
+        @Override
+        public synchronized List<BookingAttempt> newest(int limit) {
+            return attempts.stream().limit(limit).toList();
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.makerspacetools.automation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Startup load and listing of the JSON and H2 job stores at 10k and 100k jobs.
+ * <p>
+ * The H2 database is imported from the seeded jobs file once per trial, so {@code load} measures opening an
+ * already imported database. A third of the jobs are inactive.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JobStoreBenchmark {
+
+    @Param({"10000", "100000"})
+    public int jobs;
+
+    @Param({"JSON", "H2"})
+    public AutomationProperties.JobStoreType store;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private Path directory;
+    private AutomationProperties properties;
+    private JobStore opened;
+
+    @Setup(Level.Trial)
+    public void seed() throws IOException {
+        directory = Files.createTempDirectory("job-store-benchmark");
+        Path jobsFile = directory.resolve("auto-booking-jobs.json");
+        List<AutoBookingJob> seeded = new ArrayList<>(jobs);
+        LocalDate startDate = LocalDate.of(2026, 1, 5);
+        for (int i = 0; i < jobs; i++) {
+            LocalDate date = startDate.plusDays(i % 7);
+            seeded.add(AutoBookingJob.builder()
+                    .startDate(date)
+                    .dayOfWeek(date.getDayOfWeek())
+                    .startTime(LocalTime.of(8 + i % 10, 0))
+                    .endTime(LocalTime.of(9 + i % 10, 0))
+                    .resourceId((long) (i % 50))
+                    .status(i % 3 == 0 ? AutoBookingJobStatus.INACTIVE : AutoBookingJobStatus.ACTIVE)
+                    .build());
+        }
+        objectMapper.writeValue(jobsFile.toFile(), seeded);
+        properties = new AutomationProperties(
+                jobsFile, store, directory.resolve("auto-booking-jobs"),
+                null, 0, 0, null, null, null, null, null);
+        opened = open();
+    }
+
+    @TearDown(Level.Trial)
+    public void clean() throws IOException {
+        close(opened);
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    /**
+     * Opens and closes a second store on the same files, as a restart does.
+     */
+    @Benchmark
+    public int load() {
+        JobStore loaded = open();
+        try {
+            return loaded.list().size();
+        } finally {
+            close(loaded);
+        }
+    }
+
+    @Benchmark
+    public List<AutoBookingJob> list() {
+        return opened.list();
+    }
+
+    @Benchmark
+    public List<AutoBookingJob> listActive() {
+        return opened.list(AutoBookingJobStatus.ACTIVE);
+    }
+
+    private JobStore open() {
+        return switch (store) {
+            case JSON -> new JsonJobStore(properties, objectMapper);
+            case H2 -> new H2JobStore(properties, objectMapper);
+        };
+    }
+
+    private static void close(JobStore jobStore) {
+        switch (jobStore) {
+            case JsonJobStore json -> json.shutdown();
+            case H2JobStore h2 -> h2.shutdown();
+            default -> {
+            }
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.makerspacetools.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decode time and allocation of the streaming availability decoder against the databind decoding it replaced.
+ * <p>
+ * Both decode {@code httpclient/check-availability-response.json} into the same per-day grids.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AvailabilityDecoderBenchmark {
+
+    private static final String FIXTURE = "/check-availability-response.json";
+    private static final LocalDate DATE = LocalDate.of(2026, 2, 21);
+    private static final int INTERVAL = 30;
+
+    private byte[] payload;
+    private BookingHorizon range;
+    private AvailabilityResponseDecoder streaming;
+    private DatabindAvailabilityDecoder databind;
+
+    @Setup
+    public void setUp() throws IOException {
+        try (InputStream input = AvailabilityDecoderBenchmark.class.getResourceAsStream(FIXTURE)) {
+            if (input == null) {
+                throw new IllegalStateException("Missing benchmark fixture " + FIXTURE);
+            }
+            payload = input.readAllBytes();
+        }
+        range = new BookingHorizon(DATE, DATE);
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+        streaming = new AvailabilityResponseDecoder(objectMapper);
+        databind = new DatabindAvailabilityDecoder(objectMapper);
+    }
+
+    @Benchmark
+    public Map<LocalDate, DayAvailability> streaming() {
+        return streaming.decode(payload, range, INTERVAL);
+    }
+
+    @Benchmark
+    public Map<LocalDate, DayAvailability> databind() {
+        return databind.decode(payload, range, INTERVAL);
+    }
+}
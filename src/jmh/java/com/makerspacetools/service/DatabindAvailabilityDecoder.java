@@ -0,0 +1,133 @@
+package com.makerspacetools.service;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The databind decoding that {@link AvailabilityResponseDecoder} replaced, kept as the benchmark baseline.
+ * <p>
+ * The whole response is bound to {@link Response}, including the fields the grid never reads, and then split
+ * into per-day {@link SlotGrid}s the way {@code MachineQueryService.splitByDate} did.
+ */
+class DatabindAvailabilityDecoder {
+
+    private final ObjectMapper objectMapper;
+
+    DatabindAvailabilityDecoder(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    Map<LocalDate, DayAvailability> decode(byte[] payload, BookingHorizon range, int interval) {
+        Response response;
+        try {
+            response = objectMapper.readValue(payload, Response.class);
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Unable to parse availability response.", exception);
+        }
+        Map<LocalDate, SlotGrid.Builder> gridsByDate = new HashMap<>();
+        for (LocalDate date = range.firstDate(); !date.isAfter(range.lastDate()); date = date.plusDays(1)) {
+            gridsByDate.put(date, new SlotGrid.Builder(date, interval));
+        }
+        if (response != null && response.availableSlots() != null) {
+            for (AvailableSlot slot : response.availableSlots()) {
+                if (slot.dateTime() == null) {
+                    continue;
+                }
+                SlotGrid.Builder grid = gridsByDate.get(slot.dateTime().toLocalDate());
+                if (grid != null) {
+                    grid.add(slot.dateTime().toLocalTime(), slot.available(), slot.booked());
+                }
+            }
+        }
+        String resourceName = response == null || response.resource() == null ? null : response.resource().name();
+        Map<LocalDate, DayAvailability> byDate = new HashMap<>();
+        gridsByDate.forEach((date, grid) -> byDate.put(date, DayAvailability.of(resourceName, grid.build())));
+        return byDate;
+    }
+
+    /**
+     * The former {@code MakerSpaceResourceAvailabilityResponse}.
+     */
+    record Response(
+            @JsonProperty("Resource")
+            Resource resource,
+            @JsonProperty("AvailableSlots")
+            List<AvailableSlot> availableSlots) {
+    }
+
+    record Resource(
+            @JsonProperty("NoReturnPolicy")
+            String noReturnPolicy,
+            @JsonProperty("NoReturnPolicyAllUsers")
+            Boolean noReturnPolicyAllUsers,
+            @JsonProperty("NoReturnPolicyAllResources")
+            Boolean noReturnPolicyAllResources,
+            @JsonProperty("IntervalLimit")
+            Integer intervalLimit,
+            @JsonProperty("Name")
+            String name,
+            @JsonProperty("Id")
+            long id) {
+    }
+
+    record AvailableSlot(
+            @JsonProperty("DateTime")
+            LocalDateTime dateTime,
+            @JsonProperty("Date")
+            LocalDateTime date,
+            @JsonProperty("Time")
+            String time,
+            @JsonProperty("Available")
+            boolean available,
+            @JsonProperty("AllowMultipleBookings")
+            boolean allowMultipleBookings,
+            @JsonProperty("Capacity")
+            int capacity,
+            @JsonProperty("BookedCount")
+            int bookedCount,
+            @JsonProperty("BookedDesks")
+            List<BookedDesk> bookedDesks,
+            @JsonProperty("Booked")
+            boolean booked) {
+    }
+
+    record BookedDesk(Long id) {
+
+        @JsonCreator(mode = JsonCreator.Mode.DELEGATING)
+        static BookedDesk fromValue(Object value) {
+            switch (value) {
+            case null -> {
+                return new BookedDesk(null);
+            }
+            case Number number -> {
+                return new BookedDesk(number.longValue());
+            }
+            case Map<?, ?> map -> {
+                Object idValue = map.get("Id");
+                if (idValue instanceof Number number) {
+                    return new BookedDesk(number.longValue());
+                }
+                if (idValue instanceof String text) {
+                    try {
+                        return new BookedDesk(Long.parseLong(text));
+                    } catch (NumberFormatException ignored) {
+                        return new BookedDesk(null);
+                    }
+                }
+            }
+            default -> {
+            }
+            }
+            return new BookedDesk(null);
+        }
+    }
+}
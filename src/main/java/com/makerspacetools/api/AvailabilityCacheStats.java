@@ -0,0 +1,22 @@
+package com.makerspacetools.api;
+
+/**
+ * Counters for the availability cache.
+ *
+ * @param hits lookups served from a fresh entry
+ * @param staleHits lookups served from a stale entry while it was refreshed
+ * @param misses lookups that required an upstream call
+ * @param coalesced upstream loads that joined an identical request already in flight
+ * @param evictions entries removed after their stale window expired
+ * @param invalidations entries removed after a booking or cancellation
+ * @param size current number of cached entries
+ */
+public record AvailabilityCacheStats(
+        long hits,
+        long staleHits,
+        long misses,
+        long coalesced,
+        long evictions,
+        long invalidations,
+        int size) {
+}
@@ -0,0 +1,16 @@
+package com.makerspacetools.api;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Slots of one day whose availability changed since the previous snapshot.
+ *
+ * @param resourceId machine the slots belong to
+ * @param date date of the slots
+ * @param snapshotVersion version of the snapshot the changes lead to
+ * @param freed slot start times that became free
+ * @param booked slot start times that are no longer free
+ */
+public record AvailabilityDelta(Long resourceId, LocalDate date, long snapshotVersion, List<String> freed, List<String> booked) {
+}
@@ -0,0 +1,15 @@
+package com.makerspacetools.api;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Availability of every pooled machine on a given date.
+ *
+ * @param date date for the returned slots
+ * @param resources availability per machine, in pool order
+ */
+public record AvailabilityMatrixResponse(
+        LocalDate date,
+        List<MachineAvailabilityResponse> resources) {
+}
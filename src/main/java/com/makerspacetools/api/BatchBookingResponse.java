@@ -0,0 +1,16 @@
+package com.makerspacetools.api;
+
+import java.util.List;
+
+/**
+ * Response from a batch booking.
+ *
+ * @param confirmed number of confirmed bookings
+ * @param failed number of rejected bookings
+ * @param results result per booking, in request order
+ */
+public record BatchBookingResponse(
+        int confirmed,
+        int failed,
+        List<BookingResponse> results) {
+}
@@ -0,0 +1,39 @@
+package com.makerspacetools.api;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * State of an asynchronous booking operation.
+ *
+ * @param operationId operation id
+ * @param status operation status
+ * @param result booking result, once completed
+ * @param submittedAt time the operation was accepted
+ * @param completedAt time the operation completed, if it has
+ */
+public record BookingOperationResponse(
+        UUID operationId,
+        Status status,
+        BookingResponse result,
+        Instant submittedAt,
+        Instant completedAt) {
+
+    /**
+     * Operation status.
+     */
+    public enum Status {
+        /**
+         * Accepted and waiting for a worker.
+         */
+        QUEUED,
+        /**
+         * Booking flow is running.
+         */
+        RUNNING,
+        /**
+         * Booking flow finished; the result tells whether it succeeded.
+         */
+        COMPLETED
+    }
+}
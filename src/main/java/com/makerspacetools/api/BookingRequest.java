@@ -11,10 +11,14 @@ import java.time.LocalTime;
  * @param date booking date
  * @param startTime booking start time
  * @param durationMinutes booking duration in minutes
+ * @param resourceId machine to book, or null to book any free machine in the pool
+ * @param snapshotVersion availability snapshot version the UI rendered, or null
  */
 public record BookingRequest(
         LocalDate date,
         @JsonFormat(pattern = "HH:mm")
         LocalTime startTime,
-        int durationMinutes) {
+        int durationMinutes,
+        Long resourceId,
+        Long snapshotVersion) {
 }
@@ -0,0 +1,34 @@
+package com.makerspacetools.api;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Set;
+
+/**
+ * Criteria for searching free booking windows.
+ *
+ * @param durationMinutes minimum window length in minutes
+ * @param from first date to search, or null for today
+ * @param to last date to search, or null for the end of the booking horizon
+ * @param daysOfWeek days to include, or empty for every day
+ * @param earliestStart earliest allowed start time, or null for the start of working hours
+ * @param latestEnd latest allowed end time, or null for the end of working hours
+ * @param limit maximum number of windows to return
+ */
+public record FreeWindowSearchRequest(
+        int durationMinutes,
+        LocalDate from,
+        LocalDate to,
+        Set<DayOfWeek> daysOfWeek,
+        LocalTime earliestStart,
+        LocalTime latestEnd,
+        int limit) {
+
+    /**
+     * Ctor.
+     */
+    public FreeWindowSearchRequest {
+        daysOfWeek = daysOfWeek == null ? Set.of() : Set.copyOf(daysOfWeek);
+    }
+}
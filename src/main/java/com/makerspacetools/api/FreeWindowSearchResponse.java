@@ -0,0 +1,31 @@
+package com.makerspacetools.api;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * Free booking windows matching a search.
+ *
+ * @param durationMinutes requested minimum window length
+ * @param windows matching windows in chronological order
+ */
+public record FreeWindowSearchResponse(int durationMinutes, List<FreeWindow> windows) {
+
+    /**
+     * Contiguous free time on a single day.
+     *
+     * @param date window date
+     * @param startTime window start
+     * @param endTime window end
+     */
+    public record FreeWindow(
+            LocalDate date,
+            @JsonFormat(pattern = "HH:mm")
+            LocalTime startTime,
+            @JsonFormat(pattern = "HH:mm")
+            LocalTime endTime) {
+    }
+}
@@ -6,12 +6,16 @@ import java.util.List;
 /**
  * Availability for a machine on a given date.
  *
+ * @param resourceId machine id
  * @param resourceName machine name
  * @param date date for the returned slots
  * @param slots availability slots for the date
+ * @param snapshotVersion version of the availability snapshot, passed back when booking
  */
 public record MachineAvailabilityResponse(
+        Long resourceId,
         String resourceName,
         LocalDate date,
-        List<AvailabilitySlot> slots) {
+        List<AvailabilitySlot> slots,
+        long snapshotVersion) {
 }
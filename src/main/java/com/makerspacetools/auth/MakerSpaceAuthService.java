@@ -157,6 +157,19 @@ public class MakerSpaceAuthService {
         }
     }
 
+    /**
+     * Wraps an action so it keeps the fallback setting of the calling thread when run on another thread.
+     *
+     * @param action action to wrap
+     * @return action bound to the current fallback setting
+     */
+    public Runnable withCurrentContext(Runnable action) {
+        if (!isFallbackAllowed()) {
+            return action;
+        }
+        return () -> runWithFallback(action);
+    }
+
     /**
      * Logs out the current session and clears cached credentials.
      */
@@ -312,7 +325,12 @@ public class MakerSpaceAuthService {
     private record ResolvedCredentials(MakerSpaceAuthCredentials credentials, boolean fallback) {
     }
 
-    private boolean isFallbackAllowed() {
+    /**
+     * Returns whether fallback credentials are enabled for the current thread.
+     *
+     * @return true inside {@link #runWithFallback(Runnable)}
+     */
+    public boolean isFallbackAllowed() {
         return Boolean.TRUE.equals(fallbackAllowed.get());
     }
 }
@@ -25,6 +25,7 @@ public record AutoBookingJob(
         LocalTime startTime,
         @JsonFormat(pattern = "HH:mm")
         LocalTime endTime,
+        Long resourceId,
         AutoBookingJobStatus status,
         Instant lastAttemptAt,
         LocalDate lastBookedDate,
@@ -53,6 +54,7 @@ public record AutoBookingJob(
                 .dayOfWeek(request.startDate().getDayOfWeek())
                 .startTime(request.startTime())
                 .endTime(request.endTime())
+                .resourceId(request.resourceId())
                 .status(request.status())
                 .build();
     }
@@ -0,0 +1,11 @@
+package com.makerspacetools.automation;
+
+import java.util.UUID;
+
+/**
+ * Published when an auto-booking job is created, updated or deleted, and when its pre-armed submit has finished.
+ *
+ * @param jobId job identifier
+ */
+record AutoBookingJobChangedEvent(UUID jobId) {
+}
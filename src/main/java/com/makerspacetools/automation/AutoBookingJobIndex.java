@@ -0,0 +1,81 @@
+package com.makerspacetools.automation;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable view of the stored jobs, indexed by id and status.
+ * <p>
+ * Changes return a new index, so a published index can be read from any thread without locking or copying.
+ */
+final class AutoBookingJobIndex {
+
+    static final AutoBookingJobIndex EMPTY = new AutoBookingJobIndex(new LinkedHashMap<>());
+
+    private final Map<UUID, AutoBookingJob> byId;
+    private final List<AutoBookingJob> jobs;
+    private final Map<AutoBookingJobStatus, List<AutoBookingJob>> byStatus;
+
+    private AutoBookingJobIndex(LinkedHashMap<UUID, AutoBookingJob> byId) {
+        this.byId = Collections.unmodifiableMap(byId);
+        this.jobs = List.copyOf(byId.values());
+        this.byStatus = Collections.unmodifiableMap(jobs.stream()
+                .collect(Collectors.groupingBy(
+                        AutoBookingJob::status,
+                        () -> new EnumMap<>(AutoBookingJobStatus.class),
+                        Collectors.toUnmodifiableList())));
+    }
+
+    /**
+     * Builds an index of the jobs; a later job replaces an earlier one with the same id.
+     *
+     * @param jobs jobs in storage order
+     * @return index
+     */
+    static AutoBookingJobIndex of(Collection<AutoBookingJob> jobs) {
+        LinkedHashMap<UUID, AutoBookingJob> byId = new LinkedHashMap<>();
+        jobs.forEach(job -> byId.put(job.id(), job));
+        return new AutoBookingJobIndex(byId);
+    }
+
+    /**
+     * Returns an index with the job added, or replaced in place when a job with its id exists.
+     */
+    AutoBookingJobIndex with(AutoBookingJob job) {
+        LinkedHashMap<UUID, AutoBookingJob> updated = new LinkedHashMap<>(byId);
+        updated.put(job.id(), job);
+        return new AutoBookingJobIndex(updated);
+    }
+
+    /**
+     * Returns an index without the job.
+     */
+    AutoBookingJobIndex without(UUID jobId) {
+        LinkedHashMap<UUID, AutoBookingJob> updated = new LinkedHashMap<>(byId);
+        updated.remove(jobId);
+        return new AutoBookingJobIndex(updated);
+    }
+
+    boolean contains(UUID jobId) {
+        return byId.containsKey(jobId);
+    }
+
+    List<AutoBookingJob> all() {
+        return jobs;
+    }
+
+    Optional<AutoBookingJob> find(UUID jobId) {
+        return Optional.ofNullable(byId.get(jobId));
+    }
+
+    List<AutoBookingJob> byStatus(AutoBookingJobStatus status) {
+        return byStatus.getOrDefault(status, List.of());
+    }
+}
@@ -16,6 +16,7 @@ public record AutoBookingJobRequest(
         LocalTime startTime,
         @JsonFormat(pattern = "HH:mm")
         LocalTime endTime,
+        Long resourceId,
         AutoBookingJobStatus status) {
 
     /**
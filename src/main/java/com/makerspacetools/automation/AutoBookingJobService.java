@@ -2,6 +2,7 @@ package com.makerspacetools.automation;
 
 import com.makerspacetools.model.WorkDaySchedule;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
@@ -12,10 +13,14 @@ import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
  * Service for managing auto-booking jobs.
+ * <p>
+ * Every change to a job is announced with an {@link AutoBookingJobChangedEvent}, so the scheduler can plan the
+ * job's next run.
  */
 @Service
 public class AutoBookingJobService {
@@ -23,11 +28,13 @@ public class AutoBookingJobService {
     private static final int MAX_DURATION_MINUTES = 240;
     private static final int SLOT_MINUTES = 30;
 
-    private final AutoBookingJobStorageService storageService;
+    private final JobStore jobStore;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
-    AutoBookingJobService(AutoBookingJobStorageService storageService) {
-        this.storageService = storageService;
+    AutoBookingJobService(JobStore jobStore, ApplicationEventPublisher eventPublisher) {
+        this.jobStore = jobStore;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -36,11 +43,19 @@ public class AutoBookingJobService {
      * @return job views
      */
     public List<AutoBookingJobView> listJobs() {
-        return storageService.list().stream().map(AutoBookingJobView::from).toList();
+        return jobStore.list().stream().map(AutoBookingJobView::from).toList();
     }
 
     List<AutoBookingJob> listJobDefinitions() {
-        return storageService.list();
+        return jobStore.list();
+    }
+
+    List<AutoBookingJob> listJobDefinitions(AutoBookingJobStatus status) {
+        return jobStore.list(status);
+    }
+
+    Optional<AutoBookingJob> findJobDefinition(UUID jobId) {
+        return jobStore.find(jobId);
     }
 
     /**
@@ -54,8 +69,9 @@ public class AutoBookingJobService {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Request body is required.");
         }
         validate(request);
-        AutoBookingJob job = AutoBookingJob.from(request);
-        return AutoBookingJobView.from(storageService.add(job));
+        AutoBookingJob job = jobStore.add(AutoBookingJob.from(request));
+        eventPublisher.publishEvent(new AutoBookingJobChangedEvent(job.id()));
+        return AutoBookingJobView.from(job);
     }
 
     /**
@@ -66,11 +82,12 @@ public class AutoBookingJobService {
      * @return updated job view
      */
     public AutoBookingJobView updateStatus(UUID jobId, AutoBookingJobStatus status) {
-        AutoBookingJob job = storageService.find(jobId)
+        AutoBookingJob job = jobStore.find(jobId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Job not found."));
+        AutoBookingJob updated = jobStore.update(job.withStatus(status))
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Job not found."));
-        AutoBookingJob updated = job.withStatus(status);
-        return AutoBookingJobView.from(storageService.update(updated)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Job not found.")));
+        eventPublisher.publishEvent(new AutoBookingJobChangedEvent(jobId));
+        return AutoBookingJobView.from(updated);
     }
 
     /**
@@ -79,18 +96,23 @@ public class AutoBookingJobService {
      * @param jobId job identifier
      */
     public void deleteJob(UUID jobId) {
-        boolean removed = storageService.delete(jobId);
+        boolean removed = jobStore.delete(jobId);
         if (!removed) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Job not found.");
         }
+        eventPublisher.publishEvent(new AutoBookingJobChangedEvent(jobId));
     }
 
     void updateAfterAttempt(UUID jobId, Instant attemptAt, LocalDate bookedDate) {
-        AutoBookingJob job = storageService.find(jobId)
+        AutoBookingJob job = jobStore.find(jobId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Job not found."));
         AutoBookingJob updated = job.withLastAttemptAt(attemptAt);
-        AutoBookingJob resolved = bookedDate == null ? updated : updated.withLastBookedDate(bookedDate);
-        storageService.update(resolved);
+        if (bookedDate == null) {
+            jobStore.updateDeferred(updated);
+        } else {
+            jobStore.update(updated.withLastBookedDate(bookedDate));
+        }
+        eventPublisher.publishEvent(new AutoBookingJobChangedEvent(jobId));
     }
 
     private void validate(AutoBookingJobRequest request) {
@@ -23,6 +23,7 @@ public record AutoBookingJobView(
         LocalTime startTime,
         @JsonFormat(pattern = "HH:mm")
         LocalTime endTime,
+        Long resourceId,
         AutoBookingJobStatus status,
         Instant lastAttemptAt,
         LocalDate lastBookedDate) {
@@ -40,6 +41,7 @@ public record AutoBookingJobView(
                 .dayOfWeek(job.dayOfWeek())
                 .startTime(job.startTime())
                 .endTime(job.endTime())
+                .resourceId(job.resourceId())
                 .status(job.status())
                 .lastAttemptAt(job.lastAttemptAt())
                 .lastBookedDate(job.lastBookedDate())
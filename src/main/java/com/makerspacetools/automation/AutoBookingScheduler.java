@@ -2,6 +2,8 @@ package com.makerspacetools.automation;
 
 import com.makerspacetools.api.BookingRequest;
 import com.makerspacetools.api.BookingResponse;
+import com.makerspacetools.service.DayPrecheck;
+import com.makerspacetools.service.MachineAvailabilityChecker;
 import com.makerspacetools.service.MachineBooker;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -20,11 +22,12 @@ import java.time.temporal.ChronoUnit;
 public class AutoBookingScheduler {
 
     private static final int WEEK_NUMBER_OF_DAYS = 7;
-    private static final int MAX_BOOKING_HOURS_AHEAD = 360;
+    static final int MAX_BOOKING_HOURS_AHEAD = 360;
 
     private final AutoBookingJobService jobService;
     private final BookingAttemptLogger attemptLog;
     private final MachineBooker machineBooker;
+    private final MachineAvailabilityChecker availabilityChecker;
     private final AutomationProperties properties;
 
     @Autowired
@@ -32,10 +35,12 @@ public class AutoBookingScheduler {
             AutoBookingJobService jobService,
             BookingAttemptLogger attemptLog,
             MachineBooker machineBooker,
+            MachineAvailabilityChecker availabilityChecker,
             AutomationProperties properties) {
         this.jobService = jobService;
         this.attemptLog = attemptLog;
         this.machineBooker = machineBooker;
+        this.availabilityChecker = availabilityChecker;
         this.properties = properties;
     }
 
@@ -63,18 +68,54 @@ public class AutoBookingScheduler {
         return !shouldSkipAttempt(job, now);
     }
 
+    /**
+     * Returns when the job next needs attention for the target date.
+     * <p>
+     * That is the next occurrence once the target date is booked, the window opening (less {@code windowLead})
+     * before the window opens, and the end of the attempt interval within the window.
+     *
+     * @param job job definition
+     * @param targetDate date to book
+     * @param now current instant
+     * @param startInstant start of the slot to book
+     * @param windowLead time before the window opening to wake up
+     * @return next actionable instant, or null when the job is not active
+     */
+    Instant nextActionAt(AutoBookingJob job, LocalDate targetDate, Instant now, Instant startInstant, Duration windowLead) {
+        if (job.status() != AutoBookingJobStatus.ACTIVE) {
+            return null;
+        }
+        if (targetDate.equals(job.lastBookedDate())) {
+            return startInstant;
+        }
+        Instant windowOpensAt = windowOpensAt(startInstant);
+        if (now.isBefore(windowOpensAt)) {
+            return windowOpensAt.minus(windowLead);
+        }
+        if (job.lastAttemptAt() == null) {
+            return now;
+        }
+        Instant retryAt = job.lastAttemptAt().plus(properties.attemptInterval());
+        return retryAt.isAfter(now) ? retryAt : now;
+    }
+
+    static Instant windowOpensAt(Instant startInstant) {
+        return startInstant.minus(MAX_BOOKING_HOURS_AHEAD, ChronoUnit.HOURS);
+    }
+
     private boolean isWithinBookingWindow(Instant startInstant, Instant now) {
         Instant maxAllowed = now.plus(MAX_BOOKING_HOURS_AHEAD, ChronoUnit.HOURS);
         return !startInstant.isBefore(now) && !startInstant.isAfter(maxAllowed);
     }
 
     void attemptJob(AutoBookingJob job, LocalDate targetDate, Instant now) {
-        BookingRequest request = new BookingRequest(targetDate, job.startTime(), job.durationMinutes());
+        BookingRequest request = new BookingRequest(targetDate, job.startTime(), job.durationMinutes(), job.resourceId(), null);
         BookingResponse response;
         try {
             response = machineBooker.bookForScheduledJob(request);
         } catch (Exception exception) {
-            recordAttempt(job, targetDate, false, exception.getMessage());
+            String message = Thread.currentThread().isInterrupted() ? "Attempt timed out." : exception.getMessage();
+            recordAttempt(job, targetDate, false, message);
             jobService.updateAfterAttempt(job.id(), now, null);
             return;
         }
@@ -87,6 +128,37 @@ public class AutoBookingScheduler {
         jobService.updateAfterAttempt(job.id(), now, success ? targetDate : null);
     }
 
+    /**
+     * Loads the availability of the target date once for all jobs due for it.
+     *
+     * @param targetDate date to book
+     * @return availability of the pooled machines
+     */
+    DayPrecheck precheck(LocalDate targetDate) {
+        return availabilityChecker.precheck(targetDate);
+    }
+
+    /**
+     * Records an attempt ruled out by the precheck and counts it towards the attempt interval.
+     *
+     * @param job job definition
+     * @param targetDate date to book
+     * @param now attempt time
+     */
+    void recordSkipped(AutoBookingJob job, LocalDate targetDate, Instant now) {
+        BookingAttempt attempt = BookingAttempt.builder()
+                .jobId(job.id())
+                .targetDate(targetDate)
+                .startTime(job.startTime())
+                .endTime(job.endTime())
+                .success(false)
+                .skipped(true)
+                .message("Slot is already taken, skipped without contacting MakerSpace.")
+                .build();
+        attemptLog.add(attempt);
+        jobService.updateAfterAttempt(job.id(), now, null);
+    }
+
     private boolean shouldSkipAttempt(AutoBookingJob job, Instant now) {
         if (job.lastAttemptAt() == null) {
             return false;
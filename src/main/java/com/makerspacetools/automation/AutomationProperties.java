@@ -1,6 +1,7 @@
 package com.makerspacetools.automation;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
 
 import java.nio.file.Path;
 import java.time.Duration;
@@ -10,22 +11,101 @@ import java.util.Objects;
  * Configuration settings for auto-booking automation.
  *
  * @param jobsFile file path for storing scheduled jobs
- * @param schedulerDelay delay between scheduler runs
+ * @param jobStore store used for scheduled jobs
+ * @param jobDatabase database file path, without extension, for the H2 job store
  * @param attemptInterval minimum time between job attempts
  * @param feedSize maximum entries retained in the attempt feed
+ * @param maxConcurrentAttempts maximum number of booking attempts running at the same time
+ * @param attemptTimeout time after which a running attempt is interrupted
+ * @param journalCompactionInterval delay between folding the job journal into the jobs file
+ * @param writeBehindInterval delay between writes of deferred job bookkeeping such as the last attempt time
+ * @param preArm settings for firing bookings at the moment their window opens
+ * @param history settings for the persistent attempt history
  */
 @ConfigurationProperties(prefix = "automation")
-public record AutomationProperties(Path jobsFile, Duration schedulerDelay, Duration attemptInterval, int feedSize) {
+public record AutomationProperties(
+        Path jobsFile,
+        JobStoreType jobStore,
+        Path jobDatabase,
+        Duration attemptInterval,
+        int feedSize,
+        int maxConcurrentAttempts,
+        Duration attemptTimeout,
+        Duration journalCompactionInterval,
+        Duration writeBehindInterval,
+        PreArm preArm,
+        History history) {
 
     /**
      * Normalizes configuration defaults.
      */
     public AutomationProperties {
         jobsFile = Objects.requireNonNullElse(jobsFile, Path.of("data/auto-booking-jobs.json"));
-        schedulerDelay = Objects.requireNonNullElse(schedulerDelay, Duration.ofMinutes(1));
+        jobStore = Objects.requireNonNullElse(jobStore, JobStoreType.JSON);
+        jobDatabase = Objects.requireNonNullElse(jobDatabase, Path.of("data/auto-booking-jobs"));
         attemptInterval = Objects.requireNonNullElse(attemptInterval, Duration.ofMinutes(5));
         if (feedSize <= 0) {
             feedSize = 200;
         }
+        if (maxConcurrentAttempts <= 0) {
+            maxConcurrentAttempts = 4;
+        }
+        attemptTimeout = Objects.requireNonNullElse(attemptTimeout, Duration.ofSeconds(30));
+        journalCompactionInterval = Objects.requireNonNullElse(journalCompactionInterval, Duration.ofMinutes(10));
+        writeBehindInterval = Objects.requireNonNullElse(writeBehindInterval, Duration.ofSeconds(30));
+        preArm = Objects.requireNonNullElse(preArm, new PreArm(false, null, null));
+        history = Objects.requireNonNullElse(history, new History(null, null, null));
+    }
+
+    /**
+     * Available job stores.
+     */
+    public enum JobStoreType {
+        /**
+         * JSON file with an append-only journal.
+         */
+        JSON,
+        /**
+         * Embedded H2 database.
+         */
+        H2
+    }
+
+    /**
+     * Settings for pre-arming jobs shortly before their booking window opens.
+     *
+     * @param enabled whether jobs are pre-armed
+     * @param warmUp time before the window opens when the token is refreshed and the booking is prepared
+     * @param lead additional time ahead of the warm-up in which a job whose window is about to open may still be
+     *             armed, so a dispatch that runs late does not miss the window
+     */
+    public record PreArm(boolean enabled, Duration warmUp, Duration lead) {
+
+        /**
+         * Normalizes configuration defaults.
+         */
+        public PreArm {
+            warmUp = Objects.requireNonNullElse(warmUp, Duration.ofSeconds(15));
+            lead = Objects.requireNonNullElse(lead, Duration.ofMinutes(1));
+        }
+    }
+
+    /**
+     * Settings for the attempt history kept on disk.
+     *
+     * @param directory directory holding the history segment files
+     * @param segmentSize size after which a segment is closed and compressed
+     * @param retention time after which closed segments are deleted
+     */
+    public record History(Path directory, DataSize segmentSize, Duration retention) {
+
+        /**
+         * Normalizes configuration defaults.
+         */
+        public History {
+            directory = Objects.requireNonNullElse(directory, Path.of("data/attempts"));
+            segmentSize = Objects.requireNonNullElse(segmentSize, DataSize.ofMegabytes(1));
+            retention = Objects.requireNonNullElse(retention, Duration.ofDays(30));
+        }
     }
 }
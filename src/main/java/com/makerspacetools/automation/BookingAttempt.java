@@ -11,6 +11,10 @@ import java.util.UUID;
 
 /**
  * Record of an auto-booking attempt.
+ * <p>
+ * {@code fireOffsetMicros} is set for pre-armed attempts and holds how long after the booking window opened the
+ * submit was sent. {@code skipped} marks attempts that were ruled out by the availability precheck without
+ * any booking call.
  */
 @Builder
 public record BookingAttempt(
@@ -23,7 +27,9 @@ public record BookingAttempt(
         @JsonFormat(pattern = "HH:mm")
         LocalTime endTime,
         boolean success,
+        boolean skipped,
         String message,
+        Long fireOffsetMicros,
         Instant occurredAt) {
 
     /**
@@ -0,0 +1,158 @@
+package com.makerspacetools.automation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Fixed-capacity ring of the latest booking attempts.
+ * <p>
+ * Writers claim the next sequence number and store the attempt in its slot, so concurrent appends never block
+ * each other. Readers walk back from the latest claimed sequence and skip slots whose entry carries a different
+ * sequence: the write is still in progress, or the slot has already been reused by a newer attempt. Reads never
+ * wait and may therefore miss an attempt that is being written at the same moment. A slot only ever moves to a
+ * higher sequence: a writer that was delayed until a newer attempt already took its slot drops its own attempt
+ * instead of overwriting the newer one.
+ * <p>
+ * Sequence numbers double as query cursors. The sequences of each job and the sequence of each attempt id are
+ * indexed as attempts are appended, and dropped again when their slot is reused. Only appends for the same job
+ * briefly contend on that job's index entry.
+ */
+final class BookingAttemptFeed {
+
+    private final AtomicReferenceArray<Entry> slots;
+    private final AtomicLong sequence;
+    private final int capacity;
+    private final Map<UUID, NavigableSet<Long>> sequencesByJob;
+    private final Map<UUID, Long> sequencesByAttempt;
+
+    BookingAttemptFeed(int capacity) {
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.sequence = new AtomicLong();
+        this.capacity = capacity;
+        this.sequencesByJob = new ConcurrentHashMap<>();
+        this.sequencesByAttempt = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Appends an attempt, replacing the oldest one when the ring is full.
+     *
+     * @param attempt attempt to append
+     */
+    void add(BookingAttempt attempt) {
+        long next = sequence.getAndIncrement();
+        sequencesByAttempt.put(attempt.id(), next);
+        if (attempt.jobId() != null) {
+            sequencesByJob.compute(attempt.jobId(), (jobId, sequences) -> {
+                NavigableSet<Long> indexed = sequences == null ? new ConcurrentSkipListSet<>() : sequences;
+                indexed.add(next);
+                return indexed;
+            });
+        }
+        Entry entry = new Entry(next, attempt);
+        int slot = index(next);
+        Entry replaced;
+        do {
+            replaced = slots.get(slot);
+            if (replaced != null && replaced.sequence() > next) {
+                unindex(entry);
+                return;
+            }
+        } while (!slots.compareAndSet(slot, replaced, entry));
+        if (replaced != null) {
+            unindex(replaced);
+        }
+    }
+
+    /**
+     * Returns the newest attempts, newest first.
+     *
+     * @param limit maximum number of entries
+     * @return list of attempts
+     */
+    List<BookingAttempt> newest(int limit) {
+        long end = sequence.get();
+        long count = Math.min(Math.min(limit, capacity), end);
+        List<BookingAttempt> result = new ArrayList<>((int) count);
+        for (long current = end - 1; current >= end - count; current--) {
+            BookingAttempt attempt = get(current);
+            if (attempt != null) {
+                result.add(attempt);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the sequence numbers of the attempts a query can match, newest first.
+     *
+     * @param jobId job whose attempts are wanted, or null for every attempt
+     * @param after exclusive lower bound, or -1
+     * @param before exclusive upper bound, or {@link Long#MAX_VALUE}
+     * @return candidate sequence numbers
+     */
+    Iterable<Long> candidates(UUID jobId, long after, long before) {
+        if (after >= before) {
+            return List.of();
+        }
+        if (jobId != null) {
+            NavigableSet<Long> sequences = sequencesByJob.get(jobId);
+            return sequences == null ? List.of() : sequences.subSet(after, false, before, false).descendingSet();
+        }
+        long end = Math.min(sequence.get(), before);
+        long start = Math.max(Math.max(0, sequence.get() - capacity), after + 1);
+        List<Long> sequences = new ArrayList<>((int) Math.max(0, end - start));
+        for (long current = end - 1; current >= start; current--) {
+            sequences.add(current);
+        }
+        return sequences;
+    }
+
+    /**
+     * Returns the attempt stored under a sequence number.
+     *
+     * @param position sequence number
+     * @return attempt, or null when it is not in the ring
+     */
+    BookingAttempt get(long position) {
+        if (position < 0) {
+            return null;
+        }
+        Entry entry = slots.get(index(position));
+        return entry != null && entry.sequence() == position ? entry.attempt() : null;
+    }
+
+    /**
+     * Returns the sequence number of an attempt.
+     *
+     * @param attemptId attempt identifier
+     * @return sequence number, or null when the attempt is no longer in the ring
+     */
+    Long sequenceOf(UUID attemptId) {
+        return sequencesByAttempt.get(attemptId);
+    }
+
+    private void unindex(Entry entry) {
+        BookingAttempt attempt = entry.attempt();
+        sequencesByAttempt.remove(attempt.id(), entry.sequence());
+        if (attempt.jobId() != null) {
+            sequencesByJob.computeIfPresent(attempt.jobId(), (jobId, sequences) -> {
+                sequences.remove(entry.sequence());
+                return sequences.isEmpty() ? null : sequences;
+            });
+        }
+    }
+
+    private int index(long position) {
+        return (int) (position % capacity);
+    }
+
+    private record Entry(long sequence, BookingAttempt attempt) {
+    }
+}
@@ -0,0 +1,418 @@
+package com.makerspacetools.automation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Persistent attempt history in rolling segment files.
+ * <p>
+ * Attempts are appended as one JSON line each to the active segment. Once it reaches
+ * {@code automation.history.segment-size}, the segment is closed, gzip-compressed and renamed to carry the time
+ * range of its attempts, and a new segment is started. The time range and job ids of every segment are kept in
+ * memory, so queries only open the segments that can contain matching attempts. Segments whose newest attempt
+ * is older than {@code automation.history.retention} are deleted.
+ * <p>
+ * Appends are queued and written by a single background thread, so recording an attempt never waits for disk
+ * I/O or a segment compression. A query may therefore not yet see an attempt that was just appended. Queries
+ * only take the lock to pick the segments to read; the segments themselves are read outside it, keeping at most
+ * the requested number of matches per segment.
+ */
+@Log4j2
+@Service
+class BookingAttemptHistory {
+
+    private static final Pattern ACTIVE_NAME = Pattern.compile("attempts-(\\d+)\\.jsonl");
+    private static final Pattern CLOSED_NAME = Pattern.compile("attempts-(\\d+)-(\\d+)\\.jsonl\\.gz");
+
+    private final Path directory;
+    private final long maxSegmentBytes;
+    private final AutomationProperties.History properties;
+    private final ObjectMapper objectMapper;
+    private final List<Segment> closed;
+    private final ExecutorService appender;
+    private Segment active;
+    private long activeBytes;
+    private BufferedWriter writer;
+
+    @Autowired
+    BookingAttemptHistory(AutomationProperties properties, ObjectMapper objectMapper) {
+        this.properties = properties.history();
+        this.directory = this.properties.directory();
+        this.maxSegmentBytes = this.properties.segmentSize().toBytes();
+        this.objectMapper = objectMapper;
+        this.closed = new ArrayList<>();
+        this.appender = Executors.newSingleThreadExecutor(Thread.ofPlatform().name("booking-attempt-history").daemon(true).factory());
+        loadSegments();
+    }
+
+    /**
+     * Queues an attempt for the history writer thread.
+     *
+     * @param attempt attempt to store
+     */
+    void append(BookingAttempt attempt) {
+        try {
+            appender.execute(() -> write(attempt));
+        } catch (RejectedExecutionException exception) {
+            log.warn("Dropping booking attempt {} recorded after shutdown", attempt.id());
+        }
+    }
+
+    /**
+     * Appends an attempt to the active segment, rolling it over when it is full.
+     */
+    private synchronized void write(BookingAttempt attempt) {
+        try {
+            if (active == null) {
+                startSegment(attempt.occurredAt());
+            }
+            writer.write(objectMapper.writeValueAsString(attempt));
+            writer.newLine();
+            writer.flush();
+            active.include(attempt);
+            activeBytes = Files.size(active.path());
+            if (activeBytes >= maxSegmentBytes) {
+                rollOver();
+            }
+        } catch (IOException exception) {
+            log.error("Unable to store booking attempt", exception);
+        }
+    }
+
+    /**
+     * Returns stored attempts, newest first.
+     *
+     * @param from earliest attempt time, or null
+     * @param to latest attempt time, or null
+     * @param jobId job to match, or null for every job
+     * @param limit maximum number of attempts
+     * @return matching attempts
+     */
+    List<BookingAttempt> query(Instant from, Instant to, UUID jobId, int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+        Predicate<BookingAttempt> filter = attempt -> (from == null || !attempt.occurredAt().isBefore(from))
+                && (to == null || !attempt.occurredAt().isAfter(to))
+                && (jobId == null || jobId.equals(attempt.jobId()));
+        List<BookingAttempt> result = new ArrayList<>();
+        for (Source source : sources(from, to, jobId)) {
+            if (result.size() >= limit) {
+                source.discard();
+                continue;
+            }
+            result.addAll(newest(source, filter, limit - result.size()));
+        }
+        return result;
+    }
+
+    /**
+     * Deletes segments whose newest attempt is older than the retention period.
+     */
+    @Scheduled(fixedDelayString = "PT1H", initialDelayString = "PT1M")
+    synchronized void expire() {
+        Instant cutoff = Instant.now().minus(properties.retention());
+        closed.removeIf(segment -> {
+            if (!segment.to().isBefore(cutoff)) {
+                return false;
+            }
+            try {
+                Files.deleteIfExists(segment.path());
+                return true;
+            } catch (IOException exception) {
+                log.warn("Unable to delete attempt segment {}", segment.path(), exception);
+                return false;
+            }
+        });
+    }
+
+    /**
+     * Writes the queued attempts and closes the active segment.
+     */
+    @PreDestroy
+    void shutdown() {
+        appender.shutdown();
+        try {
+            if (!appender.awaitTermination(10, TimeUnit.SECONDS)) {
+                log.warn("Booking attempt history did not finish writing before shutdown");
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            closeWriter();
+        }
+    }
+
+    /**
+     * Picks the segments that can contain matches, newest first. The active segment is opened here, so a
+     * rollover that deletes it while the query runs does not pull the file away, and it is only read up to its
+     * current length, so a line being written is never seen.
+     */
+    private synchronized List<Source> sources(Instant from, Instant to, UUID jobId) {
+        List<Source> sources = new ArrayList<>(closed.size() + 1);
+        if (active != null && active.mayContain(from, to, jobId)) {
+            try {
+                sources.add(new Source(active.path(), Files.newInputStream(active.path()), activeBytes));
+            } catch (IOException exception) {
+                log.error("Unable to read attempt segment {}", active.path(), exception);
+            }
+        }
+        for (int index = closed.size() - 1; index >= 0; index--) {
+            Segment segment = closed.get(index);
+            if (segment.mayContain(from, to, jobId)) {
+                sources.add(new Source(segment.path(), null, 0));
+            }
+        }
+        return sources;
+    }
+
+    /**
+     * Streams a segment and returns its newest matches, newest first.
+     */
+    private List<BookingAttempt> newest(Source source, Predicate<BookingAttempt> filter, int limit) {
+        ArrayDeque<BookingAttempt> newest = new ArrayDeque<>();
+        try (InputStream input = source.open()) {
+            readLines(input, source.path(), attempt -> {
+                if (filter.test(attempt)) {
+                    if (newest.size() == limit) {
+                        newest.removeFirst();
+                    }
+                    newest.addLast(attempt);
+                }
+            });
+        } catch (NoSuchFileException exception) {
+            log.debug("Attempt segment {} expired during a query", source.path());
+        } catch (IOException exception) {
+            log.error("Unable to read attempt segment {}", source.path(), exception);
+        }
+        List<BookingAttempt> matches = new ArrayList<>(newest);
+        matches.sort(Comparator.comparing(BookingAttempt::occurredAt).reversed());
+        return matches;
+    }
+
+    /**
+     * Indexes the segments on disk. A segment left open by the previous run is closed, so appends always start
+     * a fresh segment.
+     */
+    private void loadSegments() {
+        if (Files.notExists(directory)) {
+            return;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path path : files.toList()) {
+                String name = path.getFileName().toString();
+                Segment segment;
+                if (CLOSED_NAME.matcher(name).matches()) {
+                    segment = scan(new Segment(path, true));
+                } else if (ACTIVE_NAME.matcher(name).matches()) {
+                    segment = scan(new Segment(path, false));
+                } else {
+                    continue;
+                }
+                if (segment.from() == null) {
+                    Files.delete(path);
+                } else {
+                    closed.add(segment.compressed() ? segment : compress(segment));
+                }
+            }
+        } catch (IOException exception) {
+            log.error("Unable to load attempt history", exception);
+        }
+        closed.sort(Comparator.comparing(Segment::from));
+    }
+
+    private Segment scan(Segment segment) {
+        try (InputStream file = Files.newInputStream(segment.path());
+             InputStream input = segment.compressed() ? new GZIPInputStream(file) : file) {
+            readLines(input, segment.path(), segment::include);
+        } catch (IOException exception) {
+            log.error("Unable to read attempt segment {}", segment.path(), exception);
+        }
+        return segment;
+    }
+
+    private void readLines(InputStream input, Path path, Consumer<BookingAttempt> consumer) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            BookingAttempt attempt;
+            try {
+                attempt = objectMapper.readValue(line, BookingAttempt.class);
+            } catch (IOException exception) {
+                log.warn("Skipping unreadable attempt in {}", path);
+                continue;
+            }
+            consumer.accept(attempt);
+        }
+    }
+
+    private void startSegment(Instant firstAttemptAt) throws IOException {
+        Files.createDirectories(directory);
+        Path path = directory.resolve("attempts-" + firstAttemptAt.toEpochMilli() + ".jsonl");
+        writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        active = new Segment(path, false);
+        activeBytes = 0;
+    }
+
+    private void rollOver() throws IOException {
+        closeWriter();
+        Segment full = active;
+        active = null;
+        closed.add(compress(full));
+    }
+
+    /**
+     * Writes the segment gzip-compressed under its closed name and deletes the uncompressed file.
+     */
+    private Segment compress(Segment segment) throws IOException {
+        String name = "attempts-%d-%d.jsonl.gz".formatted(segment.from().toEpochMilli(), segment.to().toEpochMilli());
+        Path target = directory.resolve(name);
+        Path temp = directory.resolve(name + ".tmp");
+        try (OutputStream output = new GZIPOutputStream(Files.newOutputStream(temp))) {
+            Files.copy(segment.path(), output);
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        Files.delete(segment.path());
+        Segment compressed = new Segment(target, true);
+        compressed.absorb(segment);
+        return compressed;
+    }
+
+    private void closeWriter() {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.close();
+        } catch (IOException exception) {
+            log.warn("Unable to close attempt segment", exception);
+        }
+        writer = null;
+    }
+
+    /**
+     * Segment picked by a query. The active segment is already open and limited to the length it had then;
+     * closed segments are immutable and opened when they are read.
+     */
+    private record Source(Path path, InputStream opened, long length) {
+
+        private InputStream open() throws IOException {
+            if (opened == null) {
+                return new GZIPInputStream(Files.newInputStream(path));
+            }
+            try (opened) {
+                return new ByteArrayInputStream(opened.readNBytes((int) length));
+            }
+        }
+
+        private void discard() {
+            if (opened == null) {
+                return;
+            }
+            try {
+                opened.close();
+            } catch (IOException exception) {
+                log.warn("Unable to close attempt segment {}", path, exception);
+            }
+        }
+    }
+
+    /**
+     * Segment file with the time range and job ids of its attempts.
+     */
+    private static final class Segment {
+
+        private final Path path;
+        private final boolean compressed;
+        private final Set<UUID> jobIds;
+        private Instant from;
+        private Instant to;
+
+        private Segment(Path path, boolean compressed) {
+            this.path = path;
+            this.compressed = compressed;
+            this.jobIds = new HashSet<>();
+        }
+
+        private void include(BookingAttempt attempt) {
+            Instant occurredAt = attempt.occurredAt();
+            if (from == null || occurredAt.isBefore(from)) {
+                from = occurredAt;
+            }
+            if (to == null || occurredAt.isAfter(to)) {
+                to = occurredAt;
+            }
+            if (attempt.jobId() != null) {
+                jobIds.add(attempt.jobId());
+            }
+        }
+
+        private void absorb(Segment other) {
+            jobIds.addAll(other.jobIds);
+            from = other.from;
+            to = other.to;
+        }
+
+        private boolean mayContain(Instant rangeFrom, Instant rangeTo, UUID jobId) {
+            return (rangeFrom == null || to == null || !to.isBefore(rangeFrom))
+                    && (rangeTo == null || from == null || !from.isAfter(rangeTo))
+                    && (jobId == null || jobIds.contains(jobId));
+        }
+
+        private Path path() {
+            return path;
+        }
+
+        private boolean compressed() {
+            return compressed;
+        }
+
+        private Instant from() {
+            return from;
+        }
+
+        private Instant to() {
+            return to;
+        }
+    }
+}
@@ -1,25 +1,33 @@
 package com.makerspacetools.automation;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
 
-import java.util.ArrayDeque;
-import java.util.Deque;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
 
 /**
- * In-memory log of booking attempts.
+ * Log of booking attempts.
+ * <p>
+ * Every attempt is queued for the persistent {@link BookingAttemptHistory}; the latest {@code automation.feed-size}
+ * attempts are also kept in a lock-free {@link BookingAttemptFeed} and restored from the history on startup.
  */
 @Service
 public class BookingAttemptLogger {
 
-    private final Deque<BookingAttempt> attempts;
-    private final int maxEntries;
+    private final BookingAttemptFeed feed;
+    private final BookingAttemptHistory history;
 
     @Autowired
-    BookingAttemptLogger(AutomationProperties properties) {
-        this.attempts = new ArrayDeque<>();
-        this.maxEntries = properties.feedSize();
+    BookingAttemptLogger(AutomationProperties properties, BookingAttemptHistory history) {
+        this.feed = new BookingAttemptFeed(properties.feedSize());
+        this.history = history;
+        List<BookingAttempt> latest = history.query(null, null, null, properties.feedSize());
+        latest.reversed().forEach(feed::add);
     }
 
     /**
@@ -27,11 +35,9 @@ public class BookingAttemptLogger {
      *
      * @param attempt attempt to add
      */
-    public synchronized void add(BookingAttempt attempt) {
-        attempts.addFirst(attempt);
-        while (attempts.size() > maxEntries) {
-            attempts.removeLast();
-        }
+    public void add(BookingAttempt attempt) {
+        feed.add(attempt);
+        history.append(attempt);
     }
 
     /**
@@ -40,7 +46,54 @@ public class BookingAttemptLogger {
      * @param limit maximum number of entries
      * @return list of attempts
      */
-    public synchronized List<BookingAttempt> list(int limit) {
-        return attempts.stream().limit(limit).toList();
+    public List<BookingAttempt> list(int limit) {
+        return feed.newest(limit);
+    }
+
+    /**
+     * Queries the in-memory feed, newest first.
+     * <p>
+     * Job queries only visit that job's attempts. The next page is requested with {@code nextCursor}; pollers
+     * pass the id of the newest attempt they have seen as {@code since} to receive only newer attempts.
+     *
+     * @param query filter and page position
+     * @return page of attempts
+     */
+    public BookingAttemptPage query(BookingAttemptQuery query) {
+        long after = -1;
+        if (query.since() != null) {
+            Long since = feed.sequenceOf(query.since());
+            if (since == null) {
+                throw new ResponseStatusException(HttpStatus.GONE, "Attempt is no longer in the feed.");
+            }
+            after = since;
+        }
+        long before = query.cursor() == null ? Long.MAX_VALUE : query.cursor();
+        List<BookingAttempt> attempts = new ArrayList<>();
+        Long last = null;
+        for (long position : feed.candidates(query.jobId(), after, before)) {
+            if (attempts.size() >= query.limit()) {
+                return new BookingAttemptPage(attempts, last);
+            }
+            BookingAttempt attempt = feed.get(position);
+            if (attempt != null && query.matches(attempt)) {
+                attempts.add(attempt);
+                last = position;
+            }
+        }
+        return new BookingAttemptPage(attempts, null);
+    }
+
+    /**
+     * Returns attempts from the persistent history, newest first.
+     *
+     * @param from earliest attempt time, or null
+     * @param to latest attempt time, or null
+     * @param jobId job to match, or null for every job
+     * @param limit maximum number of entries
+     * @return list of attempts
+     */
+    public List<BookingAttempt> history(Instant from, Instant to, UUID jobId, int limit) {
+        return history.query(from, to, jobId, limit);
     }
 }
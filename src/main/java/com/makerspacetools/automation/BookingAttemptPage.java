@@ -0,0 +1,12 @@
+package com.makerspacetools.automation;
+
+import java.util.List;
+
+/**
+ * Page of attempts returned by a feed query.
+ *
+ * @param attempts matching attempts, newest first
+ * @param nextCursor cursor for the next, older page, or null when there is none
+ */
+public record BookingAttemptPage(List<BookingAttempt> attempts, Long nextCursor) {
+}
@@ -0,0 +1,48 @@
+package com.makerspacetools.automation;
+
+import lombok.Builder;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Filter and page position for querying the attempt feed. Null criteria match every attempt.
+ *
+ * @param jobId job the attempts belong to
+ * @param success whether only successful or only failed attempts are returned
+ * @param targetFrom earliest target date
+ * @param targetTo latest target date
+ * @param occurredFrom earliest attempt time
+ * @param occurredTo latest attempt time
+ * @param cursor cursor from the previous page; only older attempts are returned
+ * @param since attempt id; only attempts recorded after it are returned
+ * @param limit maximum number of attempts
+ */
+@Builder
+public record BookingAttemptQuery(
+        UUID jobId,
+        Boolean success,
+        LocalDate targetFrom,
+        LocalDate targetTo,
+        Instant occurredFrom,
+        Instant occurredTo,
+        Long cursor,
+        UUID since,
+        int limit) {
+
+    /**
+     * Returns whether an attempt matches the filter criteria.
+     *
+     * @param attempt attempt to test
+     * @return true when the attempt matches
+     */
+    boolean matches(BookingAttempt attempt) {
+        return (jobId == null || jobId.equals(attempt.jobId()))
+                && (success == null || success == attempt.success())
+                && (targetFrom == null || (attempt.targetDate() != null && !attempt.targetDate().isBefore(targetFrom)))
+                && (targetTo == null || (attempt.targetDate() != null && !attempt.targetDate().isAfter(targetTo)))
+                && (occurredFrom == null || !attempt.occurredAt().isBefore(occurredFrom))
+                && (occurredTo == null || !attempt.occurredAt().isAfter(occurredTo));
+    }
+}
@@ -0,0 +1,221 @@
+package com.makerspacetools.automation;
+
+import com.makerspacetools.api.BookingRequest;
+import com.makerspacetools.api.BookingResponse;
+import com.makerspacetools.auth.MakerSpaceAuthService;
+import com.makerspacetools.service.MachineBooker;
+import com.makerspacetools.service.PreparedBooking;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Fires scheduled bookings at the instant their booking window opens.
+ * <p>
+ * A job whose window opens within the warm-up and the pre-arm lead is armed: shortly before the window opens
+ * the token is refreshed, the upstream connection is warmed up and the basket is built, and the submit is then
+ * sent from a virtual thread that parks until just before the deadline and spins for the rest. The timer thread
+ * only starts these steps, so jobs sharing a window opening do not wait for each other's round trips. The offset
+ * from the window opening to the moment the request is sent is recorded with the attempt. Once the fire has
+ * finished, a job change is published so the job is planned again.
+ */
+@Log4j2
+@Component
+class BookingPreArmer {
+
+    private static final long SPIN_NANOS = TimeUnit.MILLISECONDS.toNanos(2);
+
+    private final MachineBooker machineBooker;
+    private final MakerSpaceAuthService authService;
+    private final AutoBookingJobService jobService;
+    private final BookingAttemptLogger attemptLog;
+    private final AutomationProperties properties;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ScheduledExecutorService timer;
+    private final ExecutorService fireExecutor;
+    private final Map<ArmKey, CompletableFuture<PreparedBooking>> armed;
+
+    @Autowired
+    BookingPreArmer(
+            MachineBooker machineBooker,
+            MakerSpaceAuthService authService,
+            AutoBookingJobService jobService,
+            BookingAttemptLogger attemptLog,
+            AutomationProperties properties,
+            ApplicationEventPublisher eventPublisher) {
+        this.machineBooker = machineBooker;
+        this.authService = authService;
+        this.jobService = jobService;
+        this.attemptLog = attemptLog;
+        this.properties = properties;
+        this.eventPublisher = eventPublisher;
+        this.timer = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("booking-pre-arm-timer").daemon(true).factory());
+        this.fireExecutor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("booking-pre-arm-", 0).factory());
+        this.armed = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Arms the job when its booking window opens within the warm-up and the pre-arm lead.
+     *
+     * @param job job definition
+     * @param targetDate date to book
+     * @param now current instant
+     * @param startInstant start of the slot to book
+     * @return true when the job is armed for the target date and must not be attempted normally
+     */
+    boolean armIfOpeningSoon(AutoBookingJob job, LocalDate targetDate, Instant now, Instant startInstant) {
+        ArmKey key = new ArmKey(job.id(), targetDate);
+        if (armed.containsKey(key)) {
+            return true;
+        }
+        AutomationProperties.PreArm preArm = properties.preArm();
+        if (!preArm.enabled() || job.status() != AutoBookingJobStatus.ACTIVE || targetDate.equals(job.lastBookedDate())) {
+            return false;
+        }
+        Instant windowOpensAt = AutoBookingScheduler.windowOpensAt(startInstant);
+        Instant armUntil = now.plus(preArm.lead()).plus(preArm.warmUp());
+        if (!windowOpensAt.isAfter(now) || windowOpensAt.isAfter(armUntil)) {
+            return false;
+        }
+        CompletableFuture<PreparedBooking> prepared = new CompletableFuture<>();
+        if (armed.putIfAbsent(key, prepared) != null) {
+            return true;
+        }
+        long openNanos = System.nanoTime() + Duration.between(Instant.now(), windowOpensAt).toNanos();
+        long warmUpDelay = Duration.between(Instant.now(), windowOpensAt.minus(preArm.warmUp())).toNanos();
+        timer.schedule(() -> fireExecutor.execute(() -> prepare(job, targetDate, prepared)),
+                Math.max(0L, warmUpDelay), TimeUnit.NANOSECONDS);
+        long fireDelay = openNanos - System.nanoTime() - SPIN_NANOS;
+        timer.schedule(() -> fireExecutor.execute(() -> fire(key, job, prepared, openNanos)),
+                Math.max(0L, fireDelay), TimeUnit.NANOSECONDS);
+        log.info("Armed job {} for {}, window opens at {}", job.id(), targetDate, windowOpensAt);
+        return true;
+    }
+
+    /**
+     * Returns whether the job is armed for the target date.
+     *
+     * @param jobId job identifier
+     * @param targetDate date to book
+     * @return true while the armed submit has not finished
+     */
+    boolean isArmed(UUID jobId, LocalDate targetDate) {
+        return armed.containsKey(new ArmKey(jobId, targetDate));
+    }
+
+    /**
+     * Returns how long before a window opens a job must be evaluated to be armed.
+     *
+     * @return arming lead, zero when pre-arming is disabled
+     */
+    Duration armingLead() {
+        AutomationProperties.PreArm preArm = properties.preArm();
+        return preArm.enabled() ? preArm.warmUp() : Duration.ZERO;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        timer.shutdownNow();
+        fireExecutor.shutdownNow();
+    }
+
+    private void prepare(AutoBookingJob job, LocalDate targetDate, CompletableFuture<PreparedBooking> prepared) {
+        authService.runWithFallback(() -> {
+            PreparedBooking booking;
+            try {
+                authService.getAccessToken();
+                BookingRequest request = new BookingRequest(targetDate, job.startTime(), job.durationMinutes(), job.resourceId(), null);
+                booking = machineBooker.prepare(request);
+            } catch (RuntimeException exception) {
+                prepared.completeExceptionally(exception);
+                return;
+            }
+            try {
+                machineBooker.warmUp(booking);
+            } catch (RuntimeException exception) {
+                log.warn("Unable to warm up booking of job {}", job.id(), exception);
+            }
+            prepared.complete(booking);
+        });
+    }
+
+    private void fire(ArmKey key, AutoBookingJob job, CompletableFuture<PreparedBooking> prepared, long openNanos) {
+        try {
+            PreparedBooking booking;
+            try {
+                booking = prepared.join();
+            } catch (RuntimeException exception) {
+                Throwable cause = exception.getCause() == null ? exception : exception.getCause();
+                recordAttempt(job, key.targetDate(), false, "Unable to prepare booking: " + cause.getMessage(), null);
+                return;
+            }
+            boolean active = jobService.findJobDefinition(job.id())
+                    .map(current -> current.status() == AutoBookingJobStatus.ACTIVE)
+                    .orElse(false);
+            if (!active) {
+                return;
+            }
+            awaitDeadline(openNanos);
+            AtomicReference<Long> sentAt = new AtomicReference<>();
+            AtomicReference<BookingResponse> response = new AtomicReference<>();
+            authService.runWithFallback(() -> response.set(
+                    machineBooker.submitPrepared(booking, () -> sentAt.set(System.nanoTime()))));
+            Long offsetMicros = sentAt.get() == null ? null : TimeUnit.NANOSECONDS.toMicros(sentAt.get() - openNanos);
+            boolean success = response.get().success();
+            String message = success ? "Booking confirmed at window open." : response.get().message();
+            recordAttempt(job, key.targetDate(), success, message, offsetMicros);
+            if (success) {
+                jobService.updateAfterAttempt(job.id(), Instant.now(), key.targetDate());
+            }
+        } catch (RuntimeException exception) {
+            log.warn("Pre-armed booking of job {} failed", job.id(), exception);
+            recordAttempt(job, key.targetDate(), false, exception.getMessage(), null);
+        } finally {
+            armed.remove(key);
+            eventPublisher.publishEvent(new AutoBookingJobChangedEvent(job.id()));
+        }
+    }
+
+    private static void awaitDeadline(long deadlineNanos) {
+        long remaining = deadlineNanos - System.nanoTime();
+        while (remaining > SPIN_NANOS) {
+            LockSupport.parkNanos(remaining - SPIN_NANOS);
+            remaining = deadlineNanos - System.nanoTime();
+        }
+        while (System.nanoTime() < deadlineNanos) {
+            Thread.onSpinWait();
+        }
+    }
+
+    private void recordAttempt(AutoBookingJob job, LocalDate targetDate, boolean success, String message, Long offsetMicros) {
+        BookingAttempt attempt = BookingAttempt.builder()
+                .jobId(job.id())
+                .targetDate(targetDate)
+                .startTime(job.startTime())
+                .endTime(job.endTime())
+                .success(success)
+                .message(message)
+                .fireOffsetMicros(offsetMicros)
+                .build();
+        attemptLog.add(attempt);
+    }
+
+    private record ArmKey(UUID jobId, LocalDate targetDate) {
+    }
+}
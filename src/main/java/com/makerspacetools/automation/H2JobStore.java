@@ -0,0 +1,224 @@
+package com.makerspacetools.automation;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import org.h2.jdbcx.JdbcConnectionPool;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * {@link JobStore} backed by an embedded, file-based H2 database.
+ * <p>
+ * Each job is one row holding the job as JSON, next to an indexed status column, so reads and writes touch
+ * single rows instead of the whole job list. On the first start, the jobs of the JSON store
+ * ({@code automation.jobs-file} and its journal) are imported in one transaction, together with a marker row
+ * that keeps later starts from importing again; the JSON files are left untouched.
+ */
+@Log4j2
+@Service
+@ConditionalOnProperty(prefix = "automation", name = "job-store", havingValue = "h2")
+class H2JobStore implements JobStore {
+
+    private static final String SELECT = "SELECT payload FROM auto_booking_job";
+    private static final String INSERT = "INSERT INTO auto_booking_job (id, status, payload) VALUES (?, ?, ?)";
+    private static final String JSON_MIGRATION = "json-import";
+
+    private final ObjectMapper objectMapper;
+    private final JdbcConnectionPool pool;
+
+    @Autowired
+    H2JobStore(AutomationProperties properties, ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        String url = "jdbc:h2:file:" + properties.jobDatabase().toAbsolutePath();
+        this.pool = JdbcConnectionPool.create(url, "sa", "");
+        createSchema();
+        migrateFromJson(properties);
+    }
+
+    @Override
+    public List<AutoBookingJob> list() {
+        return query(SELECT + " ORDER BY seq", statement -> {
+        });
+    }
+
+    @Override
+    public List<AutoBookingJob> list(AutoBookingJobStatus status) {
+        return query(SELECT + " WHERE status = ? ORDER BY seq", statement -> statement.setString(1, status.name()));
+    }
+
+    @Override
+    public Optional<AutoBookingJob> find(UUID jobId) {
+        return query(SELECT + " WHERE id = ?", statement -> statement.setObject(1, jobId)).stream().findFirst();
+    }
+
+    @Override
+    public AutoBookingJob add(AutoBookingJob job) {
+        execute(INSERT, statement -> bindInsert(statement, job));
+        return job;
+    }
+
+    @Override
+    public Optional<AutoBookingJob> update(AutoBookingJob updated) {
+        int rows = execute("UPDATE auto_booking_job SET status = ?, payload = ? WHERE id = ?", statement -> {
+            statement.setString(1, updated.status().name());
+            statement.setString(2, toJson(updated));
+            statement.setObject(3, updated.id());
+        });
+        return rows == 0 ? Optional.empty() : Optional.of(updated);
+    }
+
+    @Override
+    public boolean delete(UUID jobId) {
+        return execute("DELETE FROM auto_booking_job WHERE id = ?", statement -> statement.setObject(1, jobId)) > 0;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.dispose();
+    }
+
+    private void createSchema() {
+        try (Connection connection = pool.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("""
+                    CREATE TABLE IF NOT EXISTS auto_booking_job (
+                        seq BIGINT AUTO_INCREMENT PRIMARY KEY,
+                        id UUID NOT NULL UNIQUE,
+                        status VARCHAR(16) NOT NULL,
+                        payload CHARACTER LARGE OBJECT NOT NULL
+                    )""");
+            statement.execute("CREATE INDEX IF NOT EXISTS auto_booking_job_status ON auto_booking_job (status)");
+            statement.execute("DROP INDEX IF EXISTS auto_booking_job_day_of_week");
+            statement.execute("ALTER TABLE auto_booking_job DROP COLUMN IF EXISTS day_of_week");
+            statement.execute("""
+                    CREATE TABLE IF NOT EXISTS auto_booking_job_migration (
+                        name VARCHAR(64) PRIMARY KEY,
+                        applied_at TIMESTAMP WITH TIME ZONE NOT NULL
+                    )""");
+        } catch (SQLException exception) {
+            throw new IllegalStateException("Unable to initialize auto booking job database.", exception);
+        }
+    }
+
+    /**
+     * Imports the JSON store once. A database that already holds jobs without a marker row was filled before
+     * markers existed, so it is only marked.
+     */
+    private void migrateFromJson(AutomationProperties properties) {
+        Map<UUID, AutoBookingJob> jobs = new LinkedHashMap<>();
+        try (Connection connection = pool.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                if (isMigrated(connection)) {
+                    return;
+                }
+                if (isEmpty(connection)) {
+                    JsonJobStore.read(properties.jobsFile(), objectMapper, jobs);
+                    try (PreparedStatement insert = connection.prepareStatement(INSERT)) {
+                        for (AutoBookingJob job : jobs.values()) {
+                            bindInsert(insert, job);
+                            insert.addBatch();
+                        }
+                        insert.executeBatch();
+                    }
+                }
+                try (PreparedStatement marker = connection.prepareStatement(
+                        "INSERT INTO auto_booking_job_migration (name, applied_at) VALUES (?, CURRENT_TIMESTAMP)")) {
+                    marker.setString(1, JSON_MIGRATION);
+                    marker.executeUpdate();
+                }
+                connection.commit();
+            } catch (SQLException | IOException | RuntimeException exception) {
+                connection.rollback();
+                throw exception;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException exception) {
+            throw new IllegalStateException("Unable to import auto booking jobs.", exception);
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Unable to read auto booking jobs for migration.", exception);
+        }
+        if (!jobs.isEmpty()) {
+            log.info("Migrated {} auto booking jobs from {}", jobs.size(), properties.jobsFile());
+        }
+    }
+
+    private static boolean isMigrated(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT 1 FROM auto_booking_job_migration WHERE name = ?")) {
+            statement.setString(1, JSON_MIGRATION);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next();
+            }
+        }
+    }
+
+    private static boolean isEmpty(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT 1 FROM auto_booking_job LIMIT 1")) {
+            return !resultSet.next();
+        }
+    }
+
+    private void bindInsert(PreparedStatement statement, AutoBookingJob job) throws SQLException {
+        statement.setObject(1, job.id());
+        statement.setString(2, job.status().name());
+        statement.setString(3, toJson(job));
+    }
+
+    private List<AutoBookingJob> query(String sql, StatementBinder binder) {
+        try (Connection connection = pool.getConnection(); PreparedStatement statement = connection.prepareStatement(sql)) {
+            binder.bind(statement);
+            List<AutoBookingJob> jobs = new ArrayList<>();
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    jobs.add(objectMapper.readValue(resultSet.getString(1), AutoBookingJob.class));
+                }
+            }
+            return jobs;
+        } catch (SQLException exception) {
+            throw new IllegalStateException("Unable to read auto booking jobs.", exception);
+        } catch (JsonProcessingException exception) {
+            throw new UncheckedIOException("Unable to parse auto booking job.", exception);
+        }
+    }
+
+    private int execute(String sql, StatementBinder binder) {
+        try (Connection connection = pool.getConnection(); PreparedStatement statement = connection.prepareStatement(sql)) {
+            binder.bind(statement);
+            return statement.executeUpdate();
+        } catch (SQLException exception) {
+            throw new IllegalStateException("Unable to save auto booking job.", exception);
+        }
+    }
+
+    private String toJson(AutoBookingJob job) {
+        try {
+            return objectMapper.writeValueAsString(job);
+        } catch (JsonProcessingException exception) {
+            throw new UncheckedIOException("Unable to serialize auto booking job.", exception);
+        }
+    }
+
+    @FunctionalInterface
+    private interface StatementBinder {
+
+        void bind(PreparedStatement statement) throws SQLException;
+    }
+}
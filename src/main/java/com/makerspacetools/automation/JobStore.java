@@ -0,0 +1,66 @@
+package com.makerspacetools.automation;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Persistent store for auto-booking jobs.
+ * <p>
+ * The implementation is selected with {@code automation.job-store}: {@code json} (default) keeps the jobs in
+ * a JSON file, {@code h2} in an embedded H2 database.
+ */
+interface JobStore {
+
+    /**
+     * Returns all jobs in creation order.
+     *
+     * @return jobs
+     */
+    List<AutoBookingJob> list();
+
+    /**
+     * Returns the jobs with the status, in creation order.
+     *
+     * @param status job status
+     * @return matching jobs
+     */
+    List<AutoBookingJob> list(AutoBookingJobStatus status);
+
+    Optional<AutoBookingJob> find(UUID jobId);
+
+    /**
+     * Stores a new job durably.
+     *
+     * @param job job to add
+     * @return stored job
+     */
+    AutoBookingJob add(AutoBookingJob job);
+
+    /**
+     * Replaces a job durably.
+     *
+     * @param updated updated job
+     * @return updated job, or empty when the job does not exist
+     */
+    Optional<AutoBookingJob> update(AutoBookingJob updated);
+
+    /**
+     * Replaces a job for bookkeeping that may be written later, such as the last attempt time.
+     * Stores without write-behind update it right away.
+     *
+     * @param updated updated job
+     * @return updated job, or empty when the job does not exist
+     */
+    default Optional<AutoBookingJob> updateDeferred(AutoBookingJob updated) {
+        return update(updated);
+    }
+
+    /**
+     * Deletes a job durably.
+     *
+     * @param jobId job identifier
+     * @return true when the job existed
+     */
+    boolean delete(UUID jobId);
+}
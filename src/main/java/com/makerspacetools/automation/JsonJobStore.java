@@ -0,0 +1,396 @@
+package com.makerspacetools.automation;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * JSON file-backed store for auto-booking jobs, the default {@link JobStore}.
+ * <p>
+ * The jobs file holds a snapshot; every change since the snapshot is appended as one compact JSON line to a
+ * journal next to it, so a write costs one short append regardless of the number of jobs. At startup the
+ * journal is replayed over the snapshot up to the first torn or unreadable line, and the journal is cut back to
+ * the end of the last good line so later appends are replayed too. Compaction writes a new snapshot to a
+ * temporary file, moves it over the jobs file atomically and only then truncates the journal, so a crash at
+ * any point leaves a snapshot and journal that replay to the latest state.
+ * <p>
+ * Reads go to an immutable {@link AutoBookingJobIndex} published through a volatile field, so they never block
+ * or copy; writers serialize among themselves, append to the journal and only then publish a new index, so a
+ * change that could not be written fails without becoming visible.
+ * <p>
+ * Files are written through {@link FileOutputStream}, which unlike a {@code FileChannel} is not closed when
+ * the writing thread is interrupted, so a timed-out booking attempt cannot break the journal for later writes.
+ * <p>
+ * Adds, updates and deletes are synced to disk before they return. Bookkeeping updates passed to
+ * {@link #updateDeferred(AutoBookingJob)} only mark the job dirty; dirty jobs are journaled together with one
+ * sync every {@code automation.write-behind-interval}, by compaction and on shutdown.
+ */
+@Log4j2
+@Service
+@ConditionalOnProperty(prefix = "automation", name = "job-store", havingValue = "json", matchIfMissing = true)
+class JsonJobStore implements JobStore {
+
+    private final Path filePath;
+    private final Path journalPath;
+    private final Path tempPath;
+    private final ObjectMapper objectMapper;
+    private final ReentrantLock writeLock;
+    private final Set<UUID> dirty;
+    private volatile AutoBookingJobIndex index;
+    private FileOutputStream journal;
+    private long journalLength;
+    private int journalEntries;
+
+    @Autowired
+    JsonJobStore(AutomationProperties properties, ObjectMapper objectMapper) {
+        this.filePath = properties.jobsFile();
+        this.journalPath = journalPath(filePath);
+        this.tempPath = filePath.resolveSibling(filePath.getFileName() + ".tmp");
+        this.objectMapper = objectMapper;
+        this.writeLock = new ReentrantLock();
+        this.dirty = new HashSet<>();
+        this.index = AutoBookingJobIndex.EMPTY;
+        loadFromFile();
+        compact();
+    }
+
+    @Override
+    public List<AutoBookingJob> list() {
+        return index.all();
+    }
+
+    @Override
+    public List<AutoBookingJob> list(AutoBookingJobStatus status) {
+        return index.byStatus(status);
+    }
+
+    @Override
+    public Optional<AutoBookingJob> find(UUID jobId) {
+        return index.find(jobId);
+    }
+
+    @Override
+    public AutoBookingJob add(AutoBookingJob job) {
+        writeLock.lock();
+        try {
+            append(List.of(JournalEntry.put(job)));
+            index = index.with(job);
+            return job;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public Optional<AutoBookingJob> update(AutoBookingJob updated) {
+        writeLock.lock();
+        try {
+            if (!index.contains(updated.id())) {
+                return Optional.empty();
+            }
+            append(List.of(JournalEntry.put(updated)));
+            index = index.with(updated);
+            dirty.remove(updated.id());
+            return Optional.of(updated);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Updates the job in memory and leaves writing it to the next flush.
+     */
+    @Override
+    public Optional<AutoBookingJob> updateDeferred(AutoBookingJob updated) {
+        writeLock.lock();
+        try {
+            if (!index.contains(updated.id())) {
+                return Optional.empty();
+            }
+            index = index.with(updated);
+            dirty.add(updated.id());
+            return Optional.of(updated);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public boolean delete(UUID jobId) {
+        writeLock.lock();
+        try {
+            if (!index.contains(jobId)) {
+                return false;
+            }
+            append(List.of(JournalEntry.delete(jobId)));
+            index = index.without(jobId);
+            dirty.remove(jobId);
+            return true;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Journals the current state of every dirty job with a single write.
+     */
+    @Scheduled(
+            fixedDelayString = "${automation.write-behind-interval:PT30S}",
+            initialDelayString = "${automation.write-behind-interval:PT30S}")
+    void flush() {
+        writeLock.lock();
+        try {
+            if (dirty.isEmpty()) {
+                return;
+            }
+            List<JournalEntry> entries = new ArrayList<>(dirty.size());
+            for (UUID jobId : dirty) {
+                index.find(jobId).ifPresent(job -> entries.add(JournalEntry.put(job)));
+            }
+            append(entries);
+            dirty.clear();
+        } catch (UncheckedIOException exception) {
+            log.error("Unable to flush auto booking jobs", exception);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Folds the journal and dirty jobs into a new snapshot, if anything changed since the last one.
+     */
+    @Scheduled(
+            fixedDelayString = "${automation.journal-compaction-interval:PT10M}",
+            initialDelayString = "${automation.journal-compaction-interval:PT10M}")
+    void compact() {
+        writeLock.lock();
+        try {
+            if (journalEntries == 0 && dirty.isEmpty()) {
+                return;
+            }
+            Path parent = filePath.getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            byte[] content = objectMapper.writerWithDefaultPrettyPrinter().writeValueAsBytes(index.all());
+            try (FileOutputStream snapshot = new FileOutputStream(tempPath.toFile())) {
+                snapshot.write(content);
+                snapshot.getFD().sync();
+            }
+            Files.move(tempPath, filePath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            closeJournal();
+            journal = new FileOutputStream(journalPath.toFile());
+            journalLength = 0;
+            journalEntries = 0;
+            dirty.clear();
+        } catch (IOException exception) {
+            log.error("Unable to compact auto booking jobs", exception);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flush();
+        compact();
+        writeLock.lock();
+        try {
+            closeJournal();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void loadFromFile() {
+        Map<UUID, AutoBookingJob> jobs = new LinkedHashMap<>();
+        try {
+            JournalReplay replay = read(filePath, objectMapper, jobs);
+            journalEntries = replay.entries();
+            if (replay.torn()) {
+                discardTornTail(replay);
+            }
+        } catch (IOException exception) {
+            log.error("Unable to load auto booking jobs", exception);
+        }
+        index = AutoBookingJobIndex.of(jobs.values());
+    }
+
+    private void discardTornTail(JournalReplay replay) {
+        try (RandomAccessFile file = new RandomAccessFile(journalPath.toFile(), "rw")) {
+            file.setLength(replay.validLength());
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Unable to repair auto booking journal.", exception);
+        }
+        log.warn("Discarded {} bytes of torn auto booking journal", replay.length() - replay.validLength());
+    }
+
+    /**
+     * Reads the jobs of a jobs file and its journal.
+     *
+     * @param filePath jobs file
+     * @param objectMapper mapper for the file contents
+     * @param jobs map that receives the jobs by id, in creation order
+     * @return outcome of the journal replay
+     * @throws IOException when the jobs file cannot be read
+     */
+    static JournalReplay read(Path filePath, ObjectMapper objectMapper, Map<UUID, AutoBookingJob> jobs) throws IOException {
+        if (Files.exists(filePath)) {
+            Arrays.stream(objectMapper.readValue(filePath.toFile(), AutoBookingJob[].class))
+                    .forEach(job -> jobs.put(job.id(), job));
+        }
+        Path journalPath = journalPath(filePath);
+        return Files.exists(journalPath) ? replayJournal(journalPath, objectMapper, jobs) : new JournalReplay(0, 0, 0);
+    }
+
+    private static Path journalPath(Path filePath) {
+        return filePath.resolveSibling(filePath.getFileName() + ".journal");
+    }
+
+    private static JournalReplay replayJournal(Path journalPath, ObjectMapper objectMapper, Map<UUID, AutoBookingJob> jobs)
+            throws IOException {
+        byte[] content = Files.readAllBytes(journalPath);
+        int replayed = 0;
+        int validLength = 0;
+        while (validLength < content.length) {
+            int end = validLength;
+            while (end < content.length && content[end] != '\n') {
+                end++;
+            }
+            if (end == content.length) {
+                log.warn("Ignoring torn auto booking journal entry");
+                break;
+            }
+            String line = new String(content, validLength, end - validLength, StandardCharsets.UTF_8);
+            if (!line.isBlank()) {
+                JournalEntry entry;
+                try {
+                    entry = objectMapper.readValue(line, JournalEntry.class);
+                } catch (IOException exception) {
+                    log.warn("Ignoring unreadable auto booking journal entry", exception);
+                    break;
+                }
+                if (entry.deletedId() != null) {
+                    jobs.remove(entry.deletedId());
+                } else {
+                    jobs.put(entry.job().id(), entry.job());
+                }
+                replayed++;
+            }
+            validLength = end + 1;
+        }
+        return new JournalReplay(replayed, validLength, content.length);
+    }
+
+    /**
+     * Appends the entries with one write and syncs the journal. A failed write is cut off again, so the next
+     * append does not land behind a partial line.
+     *
+     * @throws UncheckedIOException when the entries could not be written
+     */
+    private void append(List<JournalEntry> entries) {
+        try {
+            if (journal == null) {
+                Path parent = journalPath.getParent();
+                if (parent != null) {
+                    Files.createDirectories(parent);
+                }
+                journal = new FileOutputStream(journalPath.toFile(), true);
+                journalLength = Files.size(journalPath);
+            }
+            StringBuilder lines = new StringBuilder();
+            for (JournalEntry entry : entries) {
+                lines.append(objectMapper.writeValueAsString(entry)).append('\n');
+            }
+            byte[] content = lines.toString().getBytes(StandardCharsets.UTF_8);
+            try {
+                journal.write(content);
+                journal.getFD().sync();
+            } catch (IOException exception) {
+                discardPartialWrite();
+                throw exception;
+            }
+            journalLength += content.length;
+            journalEntries += entries.size();
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Unable to save auto booking jobs.", exception);
+        }
+    }
+
+    private void discardPartialWrite() {
+        closeJournal();
+        try (RandomAccessFile file = new RandomAccessFile(journalPath.toFile(), "rw")) {
+            file.setLength(journalLength);
+        } catch (IOException exception) {
+            log.warn("Unable to discard partial auto booking journal entry", exception);
+        }
+    }
+
+    private void closeJournal() {
+        if (journal == null) {
+            return;
+        }
+        try {
+            journal.close();
+        } catch (IOException exception) {
+            log.warn("Unable to close auto booking journal", exception);
+        }
+        journal = null;
+    }
+
+    /**
+     * Journal line: either the new state of a job or the id of a deleted job.
+     *
+     * @param job stored job, for additions and updates
+     * @param deletedId id of the deleted job, for deletions
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    record JournalEntry(AutoBookingJob job, UUID deletedId) {
+
+        static JournalEntry put(AutoBookingJob job) {
+            return new JournalEntry(job, null);
+        }
+
+        static JournalEntry delete(UUID jobId) {
+            return new JournalEntry(null, jobId);
+        }
+    }
+
+    /**
+     * Outcome of replaying a journal.
+     *
+     * @param entries number of entries replayed
+     * @param validLength length of the journal up to the end of the last good line
+     * @param length length of the journal file
+     */
+    record JournalReplay(int entries, long validLength, long length) {
+
+        boolean torn() {
+            return validLength < length;
+        }
+    }
+}
@@ -1,56 +1,378 @@
 package com.makerspacetools.automation;
 
 import com.makerspacetools.auth.MakerSpaceAuthService;
+import com.makerspacetools.service.DayPrecheck;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
+/**
+ * Runs auto-booking jobs when they next need attention.
+ * <p>
+ * Each active job has one deadline in a delay queue: the window opening (or the pre-arm warm-up before it),
+ * the end of the attempt interval, or the start of the booked slot, after which the next occurrence is due.
+ * A dispatcher thread sleeps until the earliest deadline, handles that job and plans its next deadline. Jobs
+ * are replanned whenever they change; every plan bumps the job's generation, so deadlines planned earlier
+ * are skipped when they come up. An armed job has no deadline until its pre-armed submit has finished and
+ * the pre-armer publishes a change for it.
+ * <p>
+ * Due attempts run on virtual threads so a slow MakerSpace response does not hold up other jobs. Each launched
+ * attempt waits on its own thread for a fair permit, so at most {@code automation.max-concurrent-attempts} run at
+ * once, waiting jobs start in deadline order and the dispatcher keeps serving deadlines meanwhile. Each worker
+ * runs with fallback credentials, is interrupted {@code automation.attempt-timeout} after it got its permit,
+ * and replans its job once the attempt has been recorded. A job is never attempted twice at the same time.
+ * <p>
+ * All deadlines that are due together are handled as one batch. Jobs of the batch that need an attempt are
+ * handed to a virtual thread, grouped by target date, and each date's availability is loaded once; jobs whose
+ * slot is already taken are recorded as skipped without any booking call. The dispatcher never waits for these
+ * loads, and a load still running after {@code automation.attempt-timeout} is cancelled, its jobs going through
+ * the regular booking flow.
+ */
+@Log4j2
 @Component
 class ScheduledBookingExecutor {
 
     private final AutoBookingJobService jobService;
     private final AutoBookingScheduler scheduler;
     private final MakerSpaceAuthService authService;
+    private final BookingPreArmer preArmer;
+    private final Duration attemptTimeout;
+    private final DelayQueue<Deadline> deadlines;
+    private final Map<UUID, Long> generations;
+    private final AtomicLong generationCounter;
+    private final Set<UUID> inFlight;
+    private final Semaphore attemptPermits;
+    private final ExecutorService attemptExecutor;
+    private final ScheduledExecutorService watchdog;
+    private final Thread dispatcher;
 
     @Autowired
     ScheduledBookingExecutor(
             AutoBookingJobService jobService,
             AutoBookingScheduler scheduler,
-            MakerSpaceAuthService authService) {
+            MakerSpaceAuthService authService,
+            BookingPreArmer preArmer,
+            AutomationProperties properties) {
         this.jobService = jobService;
         this.scheduler = scheduler;
         this.authService = authService;
+        this.preArmer = preArmer;
+        this.attemptTimeout = properties.attemptTimeout();
+        this.deadlines = new DelayQueue<>();
+        this.generations = new ConcurrentHashMap<>();
+        this.generationCounter = new AtomicLong();
+        this.inFlight = ConcurrentHashMap.newKeySet();
+        this.attemptPermits = new Semaphore(properties.maxConcurrentAttempts(), true);
+        this.attemptExecutor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("auto-booking-attempt-", 0).factory());
+        this.watchdog = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("auto-booking-watchdog").daemon(true).factory());
+        this.dispatcher = Thread.ofPlatform().name("auto-booking-dispatcher").daemon(true).unstarted(this::dispatch);
     }
 
     /**
-     * Executes auto-booking attempts on a fixed interval.
+     * Plans every active job and starts dispatching.
      */
-    @Scheduled(fixedDelayString = "${automation.scheduler-delay:PT1M}")
-    public void execute() {
-        List<AutoBookingJob> jobs = jobService.listJobDefinitions();
-        if (jobs.isEmpty()) {
+    @EventListener(ApplicationReadyEvent.class)
+    void start() {
+        jobService.listJobDefinitions(AutoBookingJobStatus.ACTIVE).forEach(this::plan);
+        dispatcher.start();
+    }
+
+    /**
+     * Replans a job after it was created, updated or deleted.
+     *
+     * @param event job change
+     */
+    @EventListener
+    void onJobChanged(AutoBookingJobChangedEvent event) {
+        Optional<AutoBookingJob> job = jobService.findJobDefinition(event.jobId());
+        if (job.isPresent()) {
+            plan(job.get());
+        } else {
+            generations.remove(event.jobId());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        dispatcher.interrupt();
+        attemptExecutor.shutdownNow();
+        watchdog.shutdownNow();
+    }
+
+    private void dispatch() {
+        while (!Thread.currentThread().isInterrupted()) {
+            List<Deadline> due = new ArrayList<>();
+            try {
+                due.add(deadlines.take());
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            deadlines.drainTo(due);
+            execute(due);
+        }
+    }
+
+    /**
+     * Handles a batch of due deadlines in deadline order. Jobs that need an attempt are marked in flight and
+     * prechecked and launched on the attempt executor.
+     */
+    private void execute(List<Deadline> due) {
+        List<DueAttempt> attempts = new ArrayList<>();
+        for (Deadline deadline : due) {
+            if (!deadline.isCurrent(generations)) {
+                continue;
+            }
+            try {
+                DueAttempt attempt = evaluate(deadline.jobId());
+                if (attempt != null) {
+                    inFlight.add(attempt.job().id());
+                    attempts.add(attempt);
+                }
+            } catch (RuntimeException exception) {
+                log.error("Auto booking of job {} failed", deadline.jobId(), exception);
+            }
+        }
+        if (attempts.isEmpty()) {
             return;
         }
+        try {
+            attemptExecutor.execute(() -> precheckAndLaunch(attempts));
+        } catch (RejectedExecutionException exception) {
+            attempts.forEach(attempt -> inFlight.remove(attempt.job().id()));
+        }
+    }
+
+    private void precheckAndLaunch(List<DueAttempt> attempts) {
+        Map<LocalDate, DayPrecheck> prechecks = precheck(attempts);
+        for (DueAttempt attempt : attempts) {
+            AutoBookingJob job = attempt.job();
+            DayPrecheck precheck = prechecks.get(attempt.targetDate());
+            if (precheck == null || precheck.mayBook(job.startTime(), job.durationMinutes(), job.resourceId())) {
+                launch(job, attempt.targetDate());
+                continue;
+            }
+            try {
+                scheduler.recordSkipped(job, attempt.targetDate(), Instant.now());
+            } catch (RuntimeException exception) {
+                log.error("Unable to record skipped attempt of job {}", job.id(), exception);
+            } finally {
+                inFlight.remove(job.id());
+                replan(job.id());
+            }
+        }
+    }
+
+    /**
+     * Loads the availability of each target date once, all dates at the same time, and waits at most the
+     * attempt timeout for them. A date that cannot be loaded in time is not prechecked, so its jobs go through
+     * the regular booking flow.
+     */
+    private Map<LocalDate, DayPrecheck> precheck(List<DueAttempt> attempts) {
+        Map<LocalDate, Future<DayPrecheck>> loads = new LinkedHashMap<>();
+        try {
+            for (DueAttempt attempt : attempts) {
+                loads.computeIfAbsent(attempt.targetDate(), date -> attemptExecutor.submit(() -> {
+                    AtomicReference<DayPrecheck> precheck = new AtomicReference<>();
+                    authService.runWithFallback(() -> precheck.set(scheduler.precheck(date)));
+                    return precheck.get();
+                }));
+            }
+        } catch (RejectedExecutionException exception) {
+            loads.values().forEach(load -> load.cancel(true));
+            return Map.of();
+        }
+        Map<LocalDate, DayPrecheck> prechecks = new HashMap<>();
+        long deadline = System.nanoTime() + attemptTimeout.toNanos();
+        for (Map.Entry<LocalDate, Future<DayPrecheck>> load : loads.entrySet()) {
+            try {
+                long remaining = Math.max(0L, deadline - System.nanoTime());
+                prechecks.put(load.getKey(), load.getValue().get(remaining, TimeUnit.NANOSECONDS));
+            } catch (TimeoutException exception) {
+                load.getValue().cancel(true);
+                log.warn("Availability precheck for {} timed out", load.getKey());
+            } catch (ExecutionException exception) {
+                log.warn("Unable to precheck availability for {}", load.getKey(), exception.getCause());
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                loads.values().forEach(pending -> pending.cancel(true));
+                return prechecks;
+            }
+        }
+        return prechecks;
+    }
+
+    /**
+     * Arms the job if its window is about to open and returns the attempt when one is due. Jobs without an
+     * attempt are replanned here; the deadline of a launched attempt is planned by its worker.
+     */
+    private DueAttempt evaluate(UUID jobId) {
+        if (inFlight.contains(jobId)) {
+            return null;
+        }
+        Optional<AutoBookingJob> found = jobService.findJobDefinition(jobId);
+        if (found.isEmpty()) {
+            generations.remove(jobId);
+            return null;
+        }
+        AutoBookingJob job = found.get();
         Instant now = Instant.now();
         ZoneId zoneId = ZoneId.systemDefault();
-        LocalDateTime nowLocal = LocalDateTime.ofInstant(now, zoneId);
-        for (AutoBookingJob job : jobs) {
-            LocalDate targetDate = scheduler.resolveTargetDate(job, nowLocal);
-            if (targetDate == null) {
-                continue;
+        LocalDate targetDate = scheduler.resolveTargetDate(job, LocalDateTime.ofInstant(now, zoneId));
+        if (targetDate != null) {
+            Instant startInstant = LocalDateTime.of(targetDate, job.startTime()).atZone(zoneId).toInstant();
+            if (!preArmer.armIfOpeningSoon(job, targetDate, now, startInstant)
+                    && scheduler.shouldAttemptJob(job, targetDate, now, startInstant)) {
+                return new DueAttempt(job, targetDate);
             }
-            LocalDateTime startDateTime = LocalDateTime.of(targetDate, job.startTime());
-            Instant startInstant = startDateTime.atZone(zoneId).toInstant();
-            if (!scheduler.shouldAttemptJob(job, targetDate, now, startInstant)) {
-                continue;
+        }
+        replan(jobId);
+        return null;
+    }
+
+    /**
+     * Starts a worker that waits for a permit and then runs the attempt on a thread of its own, which the
+     * watchdog cancels once the attempt timeout has passed.
+     */
+    private void launch(AutoBookingJob job, LocalDate targetDate) {
+        try {
+            attemptExecutor.execute(() -> runAttempt(job, targetDate));
+        } catch (RejectedExecutionException exception) {
+            inFlight.remove(job.id());
+        }
+    }
+
+    /**
+     * Runs the attempt once a permit is free. Whichever of the attempt and the watchdog starts first owns the
+     * cleanup, so the permit and the in-flight mark are released exactly once, also when the watchdog fires
+     * before the attempt got a thread.
+     */
+    private void runAttempt(AutoBookingJob job, LocalDate targetDate) {
+        try {
+            attemptPermits.acquire();
+        } catch (InterruptedException exception) {
+            inFlight.remove(job.id());
+            return;
+        }
+        AtomicBoolean started = new AtomicBoolean();
+        Future<?> attempt;
+        try {
+            attempt = attemptExecutor.submit(() -> {
+                if (!started.compareAndSet(false, true)) {
+                    return;
+                }
+                try {
+                    authService.runWithFallback(() -> scheduler.attemptJob(job, targetDate, Instant.now()));
+                } finally {
+                    finishAttempt(job.id());
+                }
+            });
+        } catch (RejectedExecutionException exception) {
+            inFlight.remove(job.id());
+            attemptPermits.release();
+            return;
+        }
+        watchdog.schedule(() -> {
+            if (started.compareAndSet(false, true)) {
+                attempt.cancel(false);
+                finishAttempt(job.id());
+            } else {
+                attempt.cancel(true);
             }
-            authService.runWithFallback(() -> scheduler.attemptJob(job, targetDate, now));
+        }, attemptTimeout.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    private void finishAttempt(UUID jobId) {
+        inFlight.remove(jobId);
+        attemptPermits.release();
+        replan(jobId);
+    }
+
+    private void replan(UUID jobId) {
+        jobService.findJobDefinition(jobId).ifPresentOrElse(this::plan, () -> generations.remove(jobId));
+    }
+
+    private void plan(AutoBookingJob job) {
+        if (inFlight.contains(job.id())) {
+            return;
+        }
+        Instant now = Instant.now();
+        ZoneId zoneId = ZoneId.systemDefault();
+        LocalDate targetDate = scheduler.resolveTargetDate(job, LocalDateTime.ofInstant(now, zoneId));
+        if (targetDate == null) {
+            generations.remove(job.id());
+            return;
+        }
+        Instant startInstant = LocalDateTime.of(targetDate, job.startTime()).atZone(zoneId).toInstant();
+        Instant dueAt = preArmer.isArmed(job.id(), targetDate)
+                ? null
+                : scheduler.nextActionAt(job, targetDate, now, startInstant, preArmer.armingLead());
+        if (dueAt == null) {
+            generations.remove(job.id());
+            return;
+        }
+        long generation = generationCounter.incrementAndGet();
+        generations.put(job.id(), generation);
+        deadlines.put(new Deadline(job.id(), generation, dueAt));
+    }
+
+    private record DueAttempt(AutoBookingJob job, LocalDate targetDate) {
+    }
+
+    /**
+     * Planned run of a job.
+     *
+     * @param jobId job identifier
+     * @param generation plan generation of the job
+     * @param dueAt instant the job is due
+     */
+    private record Deadline(UUID jobId, long generation, Instant dueAt) implements Delayed {
+
+        boolean isCurrent(Map<UUID, Long> generations) {
+            Long current = generations.get(jobId);
+            return current != null && current == generation;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(Duration.between(Instant.now(), dueAt));
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return dueAt.compareTo(((Deadline) other).dueAt);
         }
     }
 }
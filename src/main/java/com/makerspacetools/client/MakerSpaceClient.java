@@ -5,7 +5,6 @@ import com.makerspacetools.makerspace.request.MakerSpaceCancelBookingRequest;
 import com.makerspacetools.makerspace.request.MakerSpaceInvoicePreviewRequestItem;
 import com.makerspacetools.makerspace.response.MakerSpaceInvoicePreviewResponse;
 import com.makerspacetools.makerspace.response.MakerSpaceMyBookingsResponse;
-import com.makerspacetools.makerspace.response.MakerSpaceResourceAvailabilityResponse;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
@@ -23,16 +22,17 @@ import java.util.Set;
 public interface MakerSpaceClient {
 
     /**
-     * Checks availability for a resource.
+     * Checks availability for a resource and returns the raw JSON payload.
      *
      * @param days number of days to query
      * @param guid resource guid
      * @param startTime query start time
      * @param interval slot interval in minutes
      * @param body request body payload
+     * @return availability response body
      */
     @PostExchange("/bookings/GetAvailabilityAtWithUser")
-    MakerSpaceResourceAvailabilityResponse checkAvailability(
+    byte[] checkAvailabilityPayload(
             @RequestParam int days,
             @RequestParam String guid,
             @RequestParam String startTime,
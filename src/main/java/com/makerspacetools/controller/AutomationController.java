@@ -7,8 +7,11 @@ import com.makerspacetools.automation.AutoBookingJobView;
 import com.makerspacetools.automation.AutomationProperties;
 import com.makerspacetools.automation.BookingAttempt;
 import com.makerspacetools.automation.BookingAttemptLogger;
+import com.makerspacetools.automation.BookingAttemptPage;
+import com.makerspacetools.automation.BookingAttemptQuery;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -21,6 +24,8 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.Instant;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
 
@@ -31,6 +36,8 @@ import java.util.UUID;
 @RequestMapping("/api/automation")
 class AutomationController {
 
+    private static final int MAX_HISTORY_LIMIT = 1000;
+
     private final AutoBookingJobService jobService;
     private final BookingAttemptLogger attemptLog;
     private final AutomationProperties properties;
@@ -103,4 +110,62 @@ class AutomationController {
         int cappedLimit = Math.max(1, Math.min(limit, properties.feedSize()));
         return attemptLog.list(cappedLimit);
     }
+
+    /**
+     * Queries recent booking attempts.
+     *
+     * @param jobId job to list attempts for
+     * @param success whether to list only successful or only failed attempts
+     * @param targetFrom earliest target date
+     * @param targetTo latest target date
+     * @param from earliest attempt time
+     * @param to latest attempt time
+     * @param cursor cursor returned with the previous page
+     * @param since id of the newest attempt already seen
+     * @param limit maximum entries to return
+     * @return page of attempts, newest first
+     */
+    @GetMapping("/attempts/query")
+    BookingAttemptPage queryAttempts(
+            @RequestParam(required = false) UUID jobId,
+            @RequestParam(required = false) Boolean success,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate targetFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate targetTo,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(required = false) UUID since,
+            @RequestParam(defaultValue = "100") int limit) {
+        BookingAttemptQuery query = BookingAttemptQuery.builder()
+                .jobId(jobId)
+                .success(success)
+                .targetFrom(targetFrom)
+                .targetTo(targetTo)
+                .occurredFrom(from)
+                .occurredTo(to)
+                .cursor(cursor)
+                .since(since)
+                .limit(Math.max(1, Math.min(limit, properties.feedSize())))
+                .build();
+        return attemptLog.query(query);
+    }
+
+    /**
+     * Lists booking attempts from the persistent history.
+     *
+     * @param from earliest attempt time
+     * @param to latest attempt time
+     * @param jobId job to list attempts for
+     * @param limit maximum entries to return
+     * @return attempts, newest first
+     */
+    @GetMapping("/attempts/history")
+    List<BookingAttempt> attemptHistory(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(required = false) UUID jobId,
+            @RequestParam(defaultValue = "100") int limit) {
+        int cappedLimit = Math.max(1, Math.min(limit, MAX_HISTORY_LIMIT));
+        return attemptLog.history(from, to, jobId, cappedLimit);
+    }
 }
@@ -1,20 +1,38 @@
 package com.makerspacetools.controller;
 
+import com.makerspacetools.api.AvailabilityCacheStats;
+import com.makerspacetools.api.AvailabilityMatrixResponse;
+import com.makerspacetools.api.BatchBookingResponse;
+import com.makerspacetools.api.BookingOperationResponse;
 import com.makerspacetools.api.BookingRequest;
 import com.makerspacetools.api.BookingResponse;
+import com.makerspacetools.api.FreeWindowSearchRequest;
+import com.makerspacetools.api.FreeWindowSearchResponse;
 import com.makerspacetools.api.MachineAvailabilityResponse;
+import com.makerspacetools.service.AvailabilityStream;
+import com.makerspacetools.service.BookingOperations;
 import com.makerspacetools.service.MachineAvailabilityChecker;
 import com.makerspacetools.service.MachineBooker;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.DayOfWeek;
 import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
 
 /**
  * REST endpoints for machine availability and booking.
@@ -23,24 +41,94 @@ import java.time.LocalDate;
 @RequestMapping("/api/machines")
 class MachineController {
 
+    private static final int MAX_SEARCH_RESULTS = 50;
+
     private final MachineBooker machineBooker;
     private final MachineAvailabilityChecker availabilityService;
+    private final AvailabilityStream availabilityStream;
+    private final BookingOperations bookingOperations;
 
     @Autowired
-    MachineController(MachineBooker machineBooker, MachineAvailabilityChecker availabilityService) {
+    MachineController(
+            MachineBooker machineBooker,
+            MachineAvailabilityChecker availabilityService,
+            AvailabilityStream availabilityStream,
+            BookingOperations bookingOperations) {
         this.machineBooker = machineBooker;
         this.availabilityService = availabilityService;
+        this.availabilityStream = availabilityStream;
+        this.bookingOperations = bookingOperations;
     }
 
     /**
      * Returns availability for the requested date.
      *
      * @param date selected date
+     * @param resourceId machine id, or null for the default machine
      * @return availability response
      */
     @GetMapping("/availability")
-    MachineAvailabilityResponse availability(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
-        return availabilityService.availabilityFor(date);
+    MachineAvailabilityResponse availability(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(required = false) Long resourceId) {
+        return availabilityService.availabilityFor(date, resourceId);
+    }
+
+    /**
+     * Returns availability of every pooled machine for the requested date.
+     *
+     * @param date selected date
+     * @return availability per machine
+     */
+    @GetMapping("/availability/matrix")
+    AvailabilityMatrixResponse availabilityMatrix(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return availabilityService.availabilityMatrix(date);
+    }
+
+    /**
+     * Searches the booking horizon for free windows of at least the given duration.
+     *
+     * @param duration minimum window length in minutes
+     * @param from first date to search
+     * @param to last date to search
+     * @param days days of week to include
+     * @param earliest earliest start time
+     * @param latest latest end time
+     * @param limit maximum windows to return
+     * @return matching windows
+     */
+    @GetMapping("/availability/search")
+    FreeWindowSearchResponse searchAvailability(
+            @RequestParam int duration,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Set<DayOfWeek> days,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "HH:mm") LocalTime earliest,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "HH:mm") LocalTime latest,
+            @RequestParam(defaultValue = "10") int limit) {
+        int cappedLimit = Math.max(1, Math.min(limit, MAX_SEARCH_RESULTS));
+        FreeWindowSearchRequest request = new FreeWindowSearchRequest(duration, from, to, days, earliest, latest, cappedLimit);
+        return availabilityService.searchFreeWindows(request);
+    }
+
+    /**
+     * Streams availability changes as Server-Sent Events.
+     *
+     * @return event emitter for the connection
+     */
+    @GetMapping(path = "/availability/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    SseEmitter streamAvailability() {
+        return availabilityStream.subscribe();
+    }
+
+    /**
+     * Returns counters for the availability cache.
+     *
+     * @return cache statistics
+     */
+    @GetMapping("/availability/cache")
+    AvailabilityCacheStats availabilityCache() {
+        return availabilityService.cacheStats();
     }
 
     /**
@@ -53,4 +141,49 @@ class MachineController {
     BookingResponse book(@RequestBody BookingRequest request) {
         return machineBooker.book(request);
     }
+
+    /**
+     * Books several slots with one invoice preview and one basket.
+     *
+     * @param requests booking requests
+     * @return result per booking, in request order
+     */
+    @PostMapping("/bookings/batch")
+    BatchBookingResponse bookBatch(@RequestBody List<BookingRequest> requests) {
+        return machineBooker.bookBatch(requests);
+    }
+
+    /**
+     * Accepts a booking to run in the background.
+     *
+     * @param request booking request
+     * @return queued operation
+     */
+    @PostMapping("/bookings/async")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    BookingOperationResponse bookAsync(@RequestBody BookingRequest request) {
+        return bookingOperations.submit(request);
+    }
+
+    /**
+     * Returns the state of an asynchronous booking.
+     *
+     * @param operationId operation id
+     * @return operation state
+     */
+    @GetMapping("/bookings/operations/{operationId}")
+    BookingOperationResponse bookingOperation(@PathVariable UUID operationId) {
+        return bookingOperations.status(operationId);
+    }
+
+    /**
+     * Streams the result of an asynchronous booking as a Server-Sent Event.
+     *
+     * @param operationId operation id
+     * @return event emitter for the connection
+     */
+    @GetMapping(path = "/bookings/operations/{operationId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    SseEmitter streamBookingOperation(@PathVariable UUID operationId) {
+        return bookingOperations.subscribe(operationId);
+    }
 }
@@ -20,6 +20,10 @@ public record MakerSpaceBasketRequest(List<BasketItem> basket, String discountCo
         return new MakerSpaceBasketRequest(List.of(item), null);
     }
 
+    public static MakerSpaceBasketRequest of(List<MakerSpaceBasketRequest.BasketItem> items) {
+        return new MakerSpaceBasketRequest(List.copyOf(items), null);
+    }
+
     /**
      * Basket item payload.
      *
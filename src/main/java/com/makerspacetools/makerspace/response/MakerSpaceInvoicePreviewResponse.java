@@ -1,5 +1,6 @@
 package com.makerspacetools.makerspace.response;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 import java.util.List;
@@ -13,7 +14,9 @@ public record MakerSpaceInvoicePreviewResponse(
         @JsonProperty("Message")
         String message,
         @JsonProperty("WasSuccessful")
-        Boolean wasSuccessful) {
+        Boolean wasSuccessful,
+        @JsonProperty("LinesRaw")
+        List<Line> lines) {
 
     /**
      * Error entry returned by the preview API.
@@ -24,4 +27,13 @@ public record MakerSpaceInvoicePreviewResponse(
             @JsonProperty("PropertyName")
             String propertyName) {
     }
+
+    /**
+     * Invoice line returned by the preview API.
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record Line(
+            @JsonProperty("BookingUniqueId")
+            String bookingUniqueId) {
+    }
 }
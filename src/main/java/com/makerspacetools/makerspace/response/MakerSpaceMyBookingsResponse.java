@@ -29,6 +29,8 @@ public record MakerSpaceMyBookingsResponse(
             @JsonProperty("CreatedOn")
             LocalDateTime createdOn,
             @JsonProperty("IsCancelled")
-            Boolean isCancelled) {
+            Boolean isCancelled,
+            @JsonProperty("ResourceId")
+            Long resourceId) {
     }
 }
@@ -2,16 +2,58 @@ package com.makerspacetools.model;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.util.List;
+
 /**
  * Setup data configured via application properties.
  *
  * @param coworker coworker configuration
- * @param embroideryMachine machine configuration
+ * @param embroideryMachine machine configuration, used as the only resource when no resources are listed
+ * @param resources bookable resources forming the machine pool, in preference order
  */
 @ConfigurationProperties(prefix = "data")
 public record SetupData(
         Coworker coworker,
-        EmbroideryMachine embroideryMachine) {
+        EmbroideryMachine embroideryMachine,
+        List<Resource> resources) {
+
+    /**
+     * Ctor.
+     */
+    public SetupData {
+        if (resources == null || resources.isEmpty()) {
+            resources = embroideryMachine == null
+                    ? List.of()
+                    : List.of(new Resource(embroideryMachine.guid(), embroideryMachine.id(), null));
+        } else {
+            resources = List.copyOf(resources);
+        }
+    }
+
+    /**
+     * Returns the resource used when a request does not name one.
+     *
+     * @return default resource
+     */
+    public Resource defaultResource() {
+        if (resources.isEmpty()) {
+            throw new IllegalStateException("No bookable resources are configured.");
+        }
+        return resources.getFirst();
+    }
+
+    /**
+     * Finds a configured resource by id.
+     *
+     * @param id resource id
+     * @return resource, or null when it is not configured
+     */
+    public Resource resource(Long id) {
+        return resources.stream()
+                .filter(resource -> resource.id().equals(id))
+                .findFirst()
+                .orElse(null);
+    }
 
     /**
      * Coworker configuration details.
@@ -29,4 +71,14 @@ public record SetupData(
      */
     public record EmbroideryMachine(String guid, Long id) {
     }
+
+    /**
+     * Bookable resource configuration details.
+     *
+     * @param guid resource guid used for availability queries
+     * @param id resource id used for bookings
+     * @param name display name, or null to use the name reported by MakerSpace
+     */
+    public record Resource(String guid, Long id, String name) {
+    }
 }
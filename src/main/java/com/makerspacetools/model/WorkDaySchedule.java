@@ -55,6 +55,17 @@ public record WorkDaySchedule(Map<DayOfWeek, TimeWindow> schedule) {
         return schedule.getOrDefault(day, defaultWindowFor(day));
     }
 
+    /**
+     * Returns whether the given day has any working hours.
+     *
+     * @param day day of week
+     * @return true when bookings are possible on the day
+     */
+    public boolean isWorkday(DayOfWeek day) {
+        TimeWindow window = windowFor(day);
+        return window.start().isBefore(window.end());
+    }
+
     /**
      * Returns whether the given date time is within the schedule.
      *
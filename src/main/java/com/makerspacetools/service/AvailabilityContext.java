@@ -1,16 +1,19 @@
 package com.makerspacetools.service;
 
-import com.makerspacetools.makerspace.response.MakerSpaceResourceAvailabilityResponse;
-
-import java.util.List;
+import java.time.LocalTime;
 
 /**
  * Availability slots and interval metadata.
  *
- * @param slots available slots for the day
- * @param intervalMinutes interval between slots
+ * @param grid slot grid for the day
  */
-record AvailabilityContext(
-        List<MakerSpaceResourceAvailabilityResponse.AvailableSlot> slots,
-        int intervalMinutes) {
+record AvailabilityContext(SlotGrid grid) {
+
+    int intervalMinutes() {
+        return grid.intervalMinutes();
+    }
+
+    boolean isRangeFree(LocalTime startTime, int durationMinutes) {
+        return grid.isRangeFree(startTime, durationMinutes);
+    }
 }
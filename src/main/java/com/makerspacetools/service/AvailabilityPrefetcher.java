@@ -0,0 +1,89 @@
+package com.makerspacetools.service;
+
+import com.makerspacetools.auth.MakerSpaceAuthService;
+import com.makerspacetools.model.WorkDaySchedule;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+
+/**
+ * Keeps the availability cache warm for every bookable day in the horizon.
+ * <p>
+ * The nearest days are refreshed more often than the rest of the horizon, so the number of upstream calls
+ * depends only on the configured intervals and not on how often availability is read.
+ */
+@Log4j2
+@Component
+class AvailabilityPrefetcher {
+
+    private final MachineAvailabilityChecker availabilityService;
+    private final MakerSpaceAuthService authService;
+    private final AvailabilityProperties.Prefetch properties;
+
+    @Autowired
+    AvailabilityPrefetcher(
+            MachineAvailabilityChecker availabilityService,
+            MakerSpaceAuthService authService,
+            AvailabilityProperties properties) {
+        this.availabilityService = availabilityService;
+        this.authService = authService;
+        this.properties = properties.prefetch();
+    }
+
+    /**
+     * Refreshes the nearest days of the horizon.
+     */
+    @Scheduled(fixedDelayString = "${availability.prefetch.near-interval:PT20S}")
+    void refreshNearDays() {
+        if (!properties.enabled()) {
+            return;
+        }
+        BookingHorizon horizon = BookingHorizon.current();
+        LocalDate nearEnd = horizon.firstDate().plusDays(properties.nearDays() - 1L);
+        LocalDate lastDate = nearEnd.isBefore(horizon.lastDate()) ? nearEnd : horizon.lastDate();
+        refresh(new BookingHorizon(horizon.firstDate(), lastDate), properties.nearInterval());
+    }
+
+    /**
+     * Refreshes the whole horizon.
+     */
+    @Scheduled(fixedDelayString = "${availability.prefetch.far-interval:PT2M}")
+    void refreshHorizon() {
+        if (!properties.enabled()) {
+            return;
+        }
+        refresh(BookingHorizon.current(), properties.farInterval());
+    }
+
+    private void refresh(BookingHorizon range, Duration interval) {
+        BookingHorizon bookable = trimToWorkdays(range);
+        if (bookable == null) {
+            return;
+        }
+        Duration freshFor = interval.multipliedBy(2);
+        authService.runWithFallback(() -> {
+            try {
+                availabilityService.prefetch(bookable, freshFor);
+            } catch (RuntimeException exception) {
+                log.warn("Unable to prefetch availability for {} - {}", bookable.firstDate(), bookable.lastDate(), exception);
+            }
+        });
+    }
+
+    private static BookingHorizon trimToWorkdays(BookingHorizon range) {
+        WorkDaySchedule schedule = WorkDaySchedule.businessHours();
+        LocalDate firstDate = range.firstDate();
+        LocalDate lastDate = range.lastDate();
+        while (!firstDate.isAfter(lastDate) && !schedule.isWorkday(firstDate.getDayOfWeek())) {
+            firstDate = firstDate.plusDays(1);
+        }
+        while (!lastDate.isBefore(firstDate) && !schedule.isWorkday(lastDate.getDayOfWeek())) {
+            lastDate = lastDate.minusDays(1);
+        }
+        return firstDate.isAfter(lastDate) ? null : new BookingHorizon(firstDate, lastDate);
+    }
+}
@@ -0,0 +1,62 @@
+package com.makerspacetools.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Configuration settings for availability caching.
+ *
+ * @param cacheTtl time an availability response is served without revalidation
+ * @param staleTtl additional time a stale response is served while it is refreshed in the background
+ * @param validationMaxAge maximum age of a cached snapshot reused to validate a booking
+ * @param prefetch background refresh settings
+ * @param maxConcurrentLoads maximum number of machines loaded from MakerSpace at the same time
+ * @param loadTimeout maximum time to wait for a load or booking check running on another thread
+ */
+@ConfigurationProperties(prefix = "availability")
+record AvailabilityProperties(
+        Duration cacheTtl,
+        Duration staleTtl,
+        Duration validationMaxAge,
+        Prefetch prefetch,
+        int maxConcurrentLoads,
+        Duration loadTimeout) {
+
+    /**
+     * Normalizes configuration defaults.
+     */
+    AvailabilityProperties {
+        cacheTtl = Objects.requireNonNullElse(cacheTtl, Duration.ofSeconds(30));
+        staleTtl = Objects.requireNonNullElse(staleTtl, Duration.ofMinutes(2));
+        validationMaxAge = Objects.requireNonNullElse(validationMaxAge, Duration.ofMinutes(1));
+        prefetch = Objects.requireNonNullElse(prefetch, new Prefetch(false, null, null, 0));
+        if (maxConcurrentLoads <= 0) {
+            maxConcurrentLoads = 4;
+        }
+        loadTimeout = Objects.requireNonNullElse(loadTimeout, Duration.ofSeconds(20));
+    }
+
+    /**
+     * Background refresh settings for the booking horizon.
+     *
+     * @param enabled whether the horizon is refreshed in the background
+     * @param nearInterval delay between refreshes of the nearest days
+     * @param farInterval delay between refreshes of the whole horizon
+     * @param nearDays number of days, starting today, refreshed at the near interval
+     */
+    record Prefetch(boolean enabled, Duration nearInterval, Duration farInterval, int nearDays) {
+
+        /**
+         * Normalizes configuration defaults.
+         */
+        Prefetch {
+            nearInterval = Objects.requireNonNullElse(nearInterval, Duration.ofSeconds(20));
+            farInterval = Objects.requireNonNullElse(farInterval, Duration.ofMinutes(2));
+            if (nearDays <= 0) {
+                nearDays = 3;
+            }
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.makerspacetools.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.makerspacetools.model.WorkDaySchedule;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Streaming decoder for the availability response.
+ * <p>
+ * Only the resource name and the {@code DateTime}, {@code Available} and {@code Booked} fields of each slot
+ * are read; every other value is skipped without being bound. Slots outside business hours are dropped while
+ * parsing and the rest are written straight into per-day {@link SlotGrid}s. A slot whose date time cannot be
+ * read is skipped with a warning instead of failing the whole response.
+ */
+@Log4j2
+@Component
+class AvailabilityResponseDecoder {
+
+    private static final int DATE_TIME_MIN_LENGTH = 16;
+
+    private final JsonFactory jsonFactory;
+    private final WorkDaySchedule schedule;
+
+    @Autowired
+    AvailabilityResponseDecoder(ObjectMapper objectMapper) {
+        this.jsonFactory = objectMapper.getFactory();
+        this.schedule = WorkDaySchedule.businessHours();
+    }
+
+    Map<LocalDate, DayAvailability> decode(byte[] payload, BookingHorizon range, int interval) {
+        Map<LocalDate, SlotGrid.Builder> grids = new HashMap<>();
+        for (LocalDate date = range.firstDate(); !date.isAfter(range.lastDate()); date = date.plusDays(1)) {
+            grids.put(date, new SlotGrid.Builder(date, interval));
+        }
+        String resourceName = payload == null || payload.length == 0 ? null : parse(payload, grids);
+        Map<LocalDate, DayAvailability> byDate = new HashMap<>();
+        grids.forEach((date, grid) -> byDate.put(date, DayAvailability.of(resourceName, grid.build())));
+        return byDate;
+    }
+
+    private String parse(byte[] payload, Map<LocalDate, SlotGrid.Builder> grids) {
+        String resourceName = null;
+        try (JsonParser parser = jsonFactory.createParser(payload)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                switch (field) {
+                    case "Resource" -> resourceName = readResourceName(parser);
+                    case "AvailableSlots" -> readSlots(parser, grids);
+                    default -> parser.skipChildren();
+                }
+            }
+            return resourceName;
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Unable to parse availability response.", exception);
+        }
+    }
+
+    private static String readResourceName(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return null;
+        }
+        String name = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            if ("Name".equals(field)) {
+                name = parser.getValueAsString();
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return name;
+    }
+
+    private void readSlots(JsonParser parser, Map<LocalDate, SlotGrid.Builder> grids) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return;
+        }
+        DayCursor cursor = new DayCursor();
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            boolean hasDateTime = false;
+            boolean available = false;
+            boolean booked = false;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "DateTime" -> hasDateTime = value == JsonToken.VALUE_STRING && cursor.read(parser);
+                    case "Available" -> available = value == JsonToken.VALUE_TRUE;
+                    case "Booked" -> booked = value == JsonToken.VALUE_TRUE;
+                    default -> parser.skipChildren();
+                }
+            }
+            if (hasDateTime) {
+                cursor.addTo(grids, schedule, available, booked);
+            }
+        }
+    }
+
+    /**
+     * Parses slot date times from the parser buffer and remembers the current day, so consecutive slots of
+     * the same day do not allocate dates or repeat schedule lookups.
+     */
+    private static final class DayCursor {
+
+        private int year;
+        private int month;
+        private int day;
+        private int minuteOfDay;
+        private LocalDate date;
+        private SlotGrid.Builder grid;
+        private boolean resolved;
+        private int windowStartMinute;
+        private int windowEndMinute;
+
+        private boolean read(JsonParser parser) throws IOException {
+            try {
+                return parse(parser);
+            } catch (DateTimeException exception) {
+                log.warn("Skipping availability slot with unreadable date time '{}'", parser.getText());
+                return false;
+            }
+        }
+
+        private boolean parse(JsonParser parser) throws IOException {
+            char[] text = parser.getTextCharacters();
+            int offset = parser.getTextOffset();
+            int length = parser.getTextLength();
+            if (length >= DATE_TIME_MIN_LENGTH && text[offset + 10] == 'T') {
+                int parsedYear = digits(text, offset, 4);
+                int parsedMonth = digits(text, offset + 5, 2);
+                int parsedDay = digits(text, offset + 8, 2);
+                int hour = digits(text, offset + 11, 2);
+                int minute = digits(text, offset + 14, 2);
+                if (parsedYear >= 0 && parsedMonth >= 0 && parsedDay >= 0 && hour >= 0 && minute >= 0) {
+                    moveTo(parsedYear, parsedMonth, parsedDay);
+                    minuteOfDay = hour * 60 + minute;
+                    return true;
+                }
+            }
+            LocalDateTime dateTime = LocalDateTime.parse(parser.getText());
+            moveTo(dateTime.getYear(), dateTime.getMonthValue(), dateTime.getDayOfMonth());
+            minuteOfDay = dateTime.getHour() * 60 + dateTime.getMinute();
+            return true;
+        }
+
+        private void moveTo(int parsedYear, int parsedMonth, int parsedDay) {
+            if (date != null && parsedYear == year && parsedMonth == month && parsedDay == day) {
+                return;
+            }
+            date = LocalDate.of(parsedYear, parsedMonth, parsedDay);
+            year = parsedYear;
+            month = parsedMonth;
+            day = parsedDay;
+            resolved = false;
+        }
+
+        private void addTo(Map<LocalDate, SlotGrid.Builder> grids, WorkDaySchedule schedule, boolean available, boolean booked) {
+            if (!resolved) {
+                grid = grids.get(date);
+                WorkDaySchedule.TimeWindow window = schedule.windowFor(date.getDayOfWeek());
+                windowStartMinute = window.start().toSecondOfDay() / 60;
+                windowEndMinute = window.end().toSecondOfDay() / 60;
+                resolved = true;
+            }
+            if (grid == null || minuteOfDay < windowStartMinute || minuteOfDay >= windowEndMinute) {
+                return;
+            }
+            grid.add(minuteOfDay, available, booked);
+        }
+
+        private static int digits(char[] text, int start, int count) {
+            int value = 0;
+            for (int index = start; index < start + count; index++) {
+                char character = text[index];
+                if (character < '0' || character > '9') {
+                    return -1;
+                }
+                value = value * 10 + (character - '0');
+            }
+            return value;
+        }
+    }
+}
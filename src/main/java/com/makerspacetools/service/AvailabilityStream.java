@@ -0,0 +1,80 @@
+package com.makerspacetools.service;
+
+import com.makerspacetools.api.AvailabilityDelta;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Fans availability changes out to connected Server-Sent Events clients.
+ * <p>
+ * Changes are detected when the availability cache stores a new snapshot, so every client is served by the
+ * same upstream poll instead of polling on its own. Published changes are queued and sent, in order, by a
+ * single background thread, so storing a snapshot never waits for a slow client connection.
+ */
+@Log4j2
+@Service
+public class AvailabilityStream {
+
+    private static final String EVENT_NAME = "availability";
+    private static final long EMITTER_TIMEOUT_MILLIS = Duration.ofMinutes(30).toMillis();
+
+    private final List<SseEmitter> emitters;
+    private final ExecutorService sender;
+
+    AvailabilityStream() {
+        this.emitters = new CopyOnWriteArrayList<>();
+        this.sender = Executors.newSingleThreadExecutor(Thread.ofPlatform().name("availability-stream").daemon(true).factory());
+    }
+
+    /**
+     * Registers a client for availability changes.
+     *
+     * @return emitter for the client connection
+     */
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(EMITTER_TIMEOUT_MILLIS);
+        emitter.onCompletion(() -> emitters.remove(emitter));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(exception -> emitters.remove(emitter));
+        emitters.add(emitter);
+        return emitter;
+    }
+
+    boolean hasSubscribers() {
+        return !emitters.isEmpty();
+    }
+
+    void publish(AvailabilityDelta delta) {
+        try {
+            sender.execute(() -> send(delta));
+        } catch (RejectedExecutionException exception) {
+            log.debug("Dropping availability change after shutdown");
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        sender.shutdownNow();
+    }
+
+    private void send(AvailabilityDelta delta) {
+        for (SseEmitter emitter : emitters) {
+            try {
+                emitter.send(SseEmitter.event().name(EVENT_NAME).data(delta));
+            } catch (IOException | IllegalStateException exception) {
+                log.debug("Dropping availability subscriber", exception);
+                emitters.remove(emitter);
+            }
+        }
+    }
+}
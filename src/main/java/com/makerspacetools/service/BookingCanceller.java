@@ -2,9 +2,12 @@ package com.makerspacetools.service;
 
 import com.makerspacetools.client.MakerSpaceClient;
 import com.makerspacetools.makerspace.request.MakerSpaceCancelBookingRequest;
+import com.makerspacetools.makerspace.response.MakerSpaceMyBookingsResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.Optional;
+
 /**
  * Service for cancelling bookings.
  */
@@ -12,19 +15,34 @@ import org.springframework.stereotype.Service;
 public class BookingCanceller {
 
     private final MakerSpaceClient client;
+    private final MachineAvailabilityChecker availabilityService;
+    private final BookingQueryService queryService;
+    private final BookingLedger ledger;
 
     @Autowired
-    BookingCanceller(MakerSpaceClient client) {
+    BookingCanceller(
+            MakerSpaceClient client,
+            MachineAvailabilityChecker availabilityService,
+            BookingQueryService queryService,
+            BookingLedger ledger) {
         this.client = client;
+        this.availabilityService = availabilityService;
+        this.queryService = queryService;
+        this.ledger = ledger;
     }
 
     /**
-     * Cancels a booking by id.
+     * Cancels a booking by id and removes its machine's entry from the booking ledger, so the slot can be booked
+     * again on that machine.
      *
      * @param bookingId booking id
      */
     public void cancelBooking(long bookingId) {
+        Optional<MakerSpaceMyBookingsResponse.MyBooking> booking = queryService.findBooking(bookingId);
         MakerSpaceCancelBookingRequest request = new MakerSpaceCancelBookingRequest("NoLongerNeeded", null);
         client.cancelBooking(bookingId, request);
+        booking.filter(cancelled -> cancelled.resourceId() != null && cancelled.fromTime() != null && cancelled.toTime() != null)
+                .ifPresent(cancelled -> ledger.forget(cancelled.resourceId(), cancelled.fromTime(), cancelled.toTime()));
+        availabilityService.invalidateAll();
     }
 }
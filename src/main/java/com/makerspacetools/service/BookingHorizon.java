@@ -0,0 +1,40 @@
+package com.makerspacetools.service;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Range of dates that can currently be booked.
+ *
+ * @param firstDate first bookable date, inclusive
+ * @param lastDate last bookable date, inclusive
+ */
+record BookingHorizon(LocalDate firstDate, LocalDate lastDate) {
+
+    static final int MAX_BOOKING_HOURS_AHEAD = 360;
+
+    /**
+     * Returns the horizon starting today and ending {@value #MAX_BOOKING_HOURS_AHEAD} hours from now.
+     *
+     * @return current booking horizon
+     */
+    static BookingHorizon current() {
+        LocalDate lastDate = LocalDateTime.ofInstant(maxAllowedInstant(), ZoneId.systemDefault()).toLocalDate();
+        return new BookingHorizon(LocalDate.now(), lastDate);
+    }
+
+    static Instant maxAllowedInstant() {
+        return Instant.now().plus(MAX_BOOKING_HOURS_AHEAD, ChronoUnit.HOURS);
+    }
+
+    boolean contains(LocalDate date) {
+        return !date.isBefore(firstDate) && !date.isAfter(lastDate);
+    }
+
+    int days() {
+        return (int) ChronoUnit.DAYS.between(firstDate, lastDate) + 1;
+    }
+}
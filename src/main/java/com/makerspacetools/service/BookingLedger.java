@@ -0,0 +1,235 @@
+package com.makerspacetools.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.makerspacetools.model.SetupData;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * JSON file-backed ledger of booking submissions.
+ * <p>
+ * Entries are keyed by machine and time range and keep the unique id sent to MakerSpace. An entry is pending
+ * while the outcome of a submission is unknown and confirmed once MakerSpace accepted it, so retries reuse the
+ * unique id of the earlier submission and repeated requests for a confirmed slot are answered locally. Only one
+ * submission per slot runs at a time; entries are dropped once their slot has ended.
+ * <p>
+ * Every change writes the ledger to a temporary file, syncs it and moves it over the ledger file atomically,
+ * so a crash never leaves a partial ledger. Snapshots are taken under the lock but written outside it, and a
+ * snapshot is skipped when a newer one is already on disk. An unreadable ledger fails startup instead of
+ * silently dropping the recorded submissions.
+ */
+@Log4j2
+@Service
+class BookingLedger {
+
+    private final Path filePath;
+    private final Path tempPath;
+    private final ObjectMapper objectMapper;
+    private final ReentrantReadWriteLock lock;
+    private final ReentrantLock saveLock;
+    private final Map<SlotKey, BookingLedgerEntry> entries;
+    private final Set<SlotKey> inFlight;
+    private long changes;
+    private long savedChanges;
+
+    @Autowired
+    BookingLedger(BookingLedgerProperties properties, ObjectMapper objectMapper) {
+        this.filePath = properties.file();
+        this.tempPath = filePath.resolveSibling(filePath.getFileName() + ".tmp");
+        this.objectMapper = objectMapper;
+        this.lock = new ReentrantReadWriteLock();
+        this.saveLock = new ReentrantLock();
+        this.entries = new HashMap<>();
+        this.inFlight = ConcurrentHashMap.newKeySet();
+        loadFromFile();
+    }
+
+    /**
+     * Claims the slot for a submission.
+     *
+     * @param resource machine to book
+     * @param timing booking timing
+     * @return claim carrying the unique id to use, or null when another submission for the slot is running
+     */
+    Claim claim(SetupData.Resource resource, BookingTiming timing) {
+        SlotKey key = SlotKey.of(resource, timing);
+        if (!inFlight.add(key)) {
+            return null;
+        }
+        BookingLedgerEntry entry = find(key);
+        return entry == null
+                ? new Claim(key, UUID.randomUUID().toString(), null)
+                : new Claim(key, entry.uniqueId(), entry.state());
+    }
+
+    /**
+     * Returns the recorded entry of a slot without claiming it.
+     *
+     * @param resource machine
+     * @param timing booking timing
+     * @return entry, or null when the slot was never submitted
+     */
+    BookingLedgerEntry find(SetupData.Resource resource, BookingTiming timing) {
+        return find(SlotKey.of(resource, timing));
+    }
+
+    /**
+     * Records that the claimed slot is about to be submitted.
+     *
+     * @throws UncheckedIOException when the entry could not be written, so nothing is submitted without a record
+     */
+    void markPending(Claim claim) {
+        saveToFile(record(claim, BookingLedgerEntry.State.PENDING));
+    }
+
+    /**
+     * Records that MakerSpace accepted the claimed slot. A failed write is only logged: the booking exists,
+     * and the pending entry on disk is resolved by the next submission for the slot.
+     */
+    void confirm(Claim claim) {
+        try {
+            saveToFile(record(claim, BookingLedgerEntry.State.CONFIRMED));
+        } catch (UncheckedIOException exception) {
+            log.error("Unable to save booking ledger", exception);
+        }
+    }
+
+    /**
+     * Ends the claim, allowing the next submission for the slot.
+     */
+    void release(Claim claim) {
+        inFlight.remove(claim.key());
+    }
+
+    /**
+     * Forgets the submission for the time range on one machine. Entries of other machines for the same time
+     * range are kept.
+     *
+     * @param resourceId machine id
+     * @param fromTime booking start
+     * @param toTime booking end
+     */
+    void forget(Long resourceId, LocalDateTime fromTime, LocalDateTime toTime) {
+        Snapshot snapshot;
+        lock.writeLock().lock();
+        try {
+            if (entries.remove(new SlotKey(resourceId, fromTime, toTime)) == null) {
+                return;
+            }
+            snapshot = snapshot();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        try {
+            saveToFile(snapshot);
+        } catch (UncheckedIOException exception) {
+            log.error("Unable to save booking ledger", exception);
+        }
+    }
+
+    private BookingLedgerEntry find(SlotKey key) {
+        lock.readLock().lock();
+        try {
+            return entries.get(key);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Snapshot record(Claim claim, BookingLedgerEntry.State state) {
+        SlotKey key = claim.key();
+        BookingLedgerEntry entry = new BookingLedgerEntry(key.resourceId(), key.fromTime(), key.toTime(), claim.uniqueId(), state, Instant.now());
+        lock.writeLock().lock();
+        try {
+            entries.put(key, entry);
+            return snapshot();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Drops entries whose slot has ended and copies the rest. Must be called under the write lock.
+     */
+    private Snapshot snapshot() {
+        LocalDateTime now = LocalDateTime.now();
+        entries.keySet().removeIf(key -> key.toTime().isBefore(now));
+        return new Snapshot(++changes, List.copyOf(entries.values()));
+    }
+
+    private void loadFromFile() {
+        if (Files.notExists(filePath)) {
+            return;
+        }
+        try {
+            BookingLedgerEntry[] loaded = objectMapper.readValue(filePath.toFile(), BookingLedgerEntry[].class);
+            for (BookingLedgerEntry entry : loaded) {
+                entries.put(new SlotKey(entry.resourceId(), entry.fromTime(), entry.toTime()), entry);
+            }
+        } catch (IOException exception) {
+            throw new IllegalStateException("Unable to read booking ledger " + filePath + ".", exception);
+        }
+    }
+
+    private void saveToFile(Snapshot snapshot) {
+        saveLock.lock();
+        try {
+            if (snapshot.changes() <= savedChanges) {
+                return;
+            }
+            Path parent = filePath.getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            byte[] content = objectMapper.writeValueAsBytes(snapshot.entries());
+            try (FileOutputStream output = new FileOutputStream(tempPath.toFile())) {
+                output.write(content);
+                output.getFD().sync();
+            }
+            Files.move(tempPath, filePath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            savedChanges = snapshot.changes();
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Unable to save booking ledger.", exception);
+        } finally {
+            saveLock.unlock();
+        }
+    }
+
+    /**
+     * Claim on a slot for one submission.
+     *
+     * @param key slot key
+     * @param uniqueId booking unique id to send
+     * @param state recorded state of an earlier submission, or null when there was none
+     */
+    record Claim(SlotKey key, String uniqueId, BookingLedgerEntry.State state) {
+    }
+
+    private record Snapshot(long changes, List<BookingLedgerEntry> entries) {
+    }
+
+    record SlotKey(Long resourceId, LocalDateTime fromTime, LocalDateTime toTime) {
+
+        static SlotKey of(SetupData.Resource resource, BookingTiming timing) {
+            return new SlotKey(resource.id(), timing.startDateTime(), timing.endDateTime());
+        }
+    }
+}
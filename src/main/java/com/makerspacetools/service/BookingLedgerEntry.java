@@ -0,0 +1,37 @@
+package com.makerspacetools.service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+/**
+ * Booking submission recorded in the ledger.
+ *
+ * @param resourceId booked machine id
+ * @param fromTime booking start
+ * @param toTime booking end
+ * @param uniqueId booking unique id sent to MakerSpace
+ * @param state submission state
+ * @param updatedAt time of the last state change
+ */
+record BookingLedgerEntry(
+        Long resourceId,
+        LocalDateTime fromTime,
+        LocalDateTime toTime,
+        String uniqueId,
+        State state,
+        Instant updatedAt) {
+
+    /**
+     * Submission state.
+     */
+    enum State {
+        /**
+         * Submitted, outcome unknown.
+         */
+        PENDING,
+        /**
+         * Accepted by MakerSpace.
+         */
+        CONFIRMED
+    }
+}
@@ -0,0 +1,22 @@
+package com.makerspacetools.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.util.Objects;
+
+/**
+ * Configuration settings for the booking ledger.
+ *
+ * @param file file path for storing submitted bookings
+ */
+@ConfigurationProperties(prefix = "booking.ledger")
+record BookingLedgerProperties(Path file) {
+
+    /**
+     * Normalizes configuration defaults.
+     */
+    BookingLedgerProperties {
+        file = Objects.requireNonNullElse(file, Path.of("data/booking-ledger.json"));
+    }
+}
@@ -0,0 +1,20 @@
+package com.makerspacetools.service;
+
+import com.makerspacetools.model.SetupData;
+
+/**
+ * Booking of a batch that passed local validation.
+ *
+ * @param index position of the booking in the batch request
+ * @param uniqueId booking unique id sent to MakerSpace
+ * @param timing booking timing
+ * @param resource machine to book
+ */
+record BookingLine(int index, String uniqueId, BookingTiming timing, SetupData.Resource resource) {
+
+    boolean overlaps(BookingTiming other, SetupData.Resource otherResource) {
+        return resource.id().equals(otherResource.id())
+                && timing.startInstant().isBefore(other.endInstant())
+                && other.startInstant().isBefore(timing.endInstant());
+    }
+}
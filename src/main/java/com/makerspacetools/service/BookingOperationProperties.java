@@ -0,0 +1,30 @@
+package com.makerspacetools.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Configuration settings for asynchronous bookings.
+ *
+ * @param maxConcurrent maximum number of booking operations running at the same time
+ * @param queueCapacity maximum number of accepted operations waiting for a worker
+ * @param retention time a completed operation stays available for status queries
+ */
+@ConfigurationProperties(prefix = "booking.async")
+record BookingOperationProperties(int maxConcurrent, int queueCapacity, Duration retention) {
+
+    /**
+     * Normalizes configuration defaults.
+     */
+    BookingOperationProperties {
+        if (maxConcurrent <= 0) {
+            maxConcurrent = 8;
+        }
+        if (queueCapacity <= 0) {
+            queueCapacity = 100;
+        }
+        retention = Objects.requireNonNullElse(retention, Duration.ofMinutes(10));
+    }
+}
@@ -0,0 +1,187 @@
+package com.makerspacetools.service;
+
+import com.makerspacetools.api.BookingOperationResponse;
+import com.makerspacetools.api.BookingRequest;
+import com.makerspacetools.api.BookingResponse;
+import com.makerspacetools.auth.MakerSpaceAuthService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs bookings asynchronously and tracks their progress.
+ * <p>
+ * Accepted bookings run the regular {@link MachineBooker} flow on virtual threads, at most
+ * {@code booking.async.max-concurrent} at a time, while up to {@code booking.async.queue-capacity} more wait.
+ * When the queue is full, new bookings are rejected instead of piling up. Clients poll the operation status or
+ * subscribe to a Server-Sent Events stream that delivers the result once the operation completes.
+ */
+@Log4j2
+@Service
+public class BookingOperations {
+
+    private static final String EVENT_NAME = "booking";
+    private static final long EMITTER_TIMEOUT_MILLIS = Duration.ofMinutes(5).toMillis();
+
+    private final MachineBooker machineBooker;
+    private final MakerSpaceAuthService authService;
+    private final Duration retention;
+    private final ThreadPoolExecutor executor;
+    private final Map<UUID, Operation> operations;
+
+    @Autowired
+    BookingOperations(MachineBooker machineBooker, MakerSpaceAuthService authService, BookingOperationProperties properties) {
+        this.machineBooker = machineBooker;
+        this.authService = authService;
+        this.retention = properties.retention();
+        this.executor = new ThreadPoolExecutor(
+                properties.maxConcurrent(),
+                properties.maxConcurrent(),
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.queueCapacity()),
+                Thread.ofVirtual().name("booking-operation-", 0).factory());
+        this.operations = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Accepts a booking to run in the background.
+     *
+     * @param request booking request
+     * @return queued operation
+     */
+    public BookingOperationResponse submit(BookingRequest request) {
+        pruneCompleted();
+        Operation operation = new Operation(UUID.randomUUID(), Instant.now());
+        operations.put(operation.id, operation);
+        try {
+            executor.execute(authService.withCurrentContext(() -> run(operation, request)));
+        } catch (RejectedExecutionException exception) {
+            operations.remove(operation.id);
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many bookings in progress, try again shortly.");
+        }
+        return operation.toResponse();
+    }
+
+    /**
+     * Returns the state of an operation.
+     *
+     * @param operationId operation id
+     * @return operation state
+     */
+    public BookingOperationResponse status(UUID operationId) {
+        return find(operationId).toResponse();
+    }
+
+    /**
+     * Registers a client for the result of an operation. The emitter completes after the result is sent,
+     * immediately when the operation has already completed.
+     *
+     * @param operationId operation id
+     * @return emitter for the client connection
+     */
+    public SseEmitter subscribe(UUID operationId) {
+        Operation operation = find(operationId);
+        SseEmitter emitter = new SseEmitter(EMITTER_TIMEOUT_MILLIS);
+        emitter.onCompletion(() -> operation.emitters.remove(emitter));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(exception -> operation.emitters.remove(emitter));
+        operation.emitters.add(emitter);
+        if (operation.status == BookingOperationResponse.Status.COMPLETED) {
+            notify(operation);
+        }
+        return emitter;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void run(Operation operation, BookingRequest request) {
+        operation.status = BookingOperationResponse.Status.RUNNING;
+        BookingResponse result;
+        try {
+            result = machineBooker.book(request);
+        } catch (ResponseStatusException exception) {
+            result = new BookingResponse(false, exception.getReason(), List.of());
+        } catch (RuntimeException exception) {
+            log.warn("Booking operation {} failed", operation.id, exception);
+            result = new BookingResponse(false, "Booking failed.", List.of());
+        }
+        operation.result = result;
+        operation.completedAt = Instant.now();
+        operation.status = BookingOperationResponse.Status.COMPLETED;
+        notify(operation);
+    }
+
+    private void notify(Operation operation) {
+        BookingOperationResponse response = operation.toResponse();
+        for (SseEmitter emitter : operation.emitters) {
+            if (!operation.emitters.remove(emitter)) {
+                continue;
+            }
+            try {
+                emitter.send(SseEmitter.event().name(EVENT_NAME).data(response));
+                emitter.complete();
+            } catch (IOException | IllegalStateException exception) {
+                log.debug("Dropping booking operation subscriber", exception);
+            }
+        }
+    }
+
+    private Operation find(UUID operationId) {
+        Operation operation = operations.get(operationId);
+        if (operation == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Booking operation not found.");
+        }
+        return operation;
+    }
+
+    private void pruneCompleted() {
+        Instant cutoff = Instant.now().minus(retention);
+        operations.values().removeIf(operation -> operation.completedAt != null && operation.completedAt.isBefore(cutoff));
+    }
+
+    /**
+     * Mutable state of one operation, written by its worker and read by status queries.
+     */
+    private static final class Operation {
+
+        private final UUID id;
+        private final Instant submittedAt;
+        private final List<SseEmitter> emitters;
+        private volatile BookingOperationResponse.Status status;
+        private volatile BookingResponse result;
+        private volatile Instant completedAt;
+
+        private Operation(UUID id, Instant submittedAt) {
+            this.id = id;
+            this.submittedAt = submittedAt;
+            this.emitters = new CopyOnWriteArrayList<>();
+            this.status = BookingOperationResponse.Status.QUEUED;
+        }
+
+        private BookingOperationResponse toResponse() {
+            BookingOperationResponse.Status current = status;
+            return new BookingOperationResponse(id, current, result, submittedAt, completedAt);
+        }
+    }
+}
@@ -11,7 +11,12 @@ import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestClientResponseException;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -31,15 +36,101 @@ class BookingPreviewer {
         this.setupData = setupData;
     }
 
-    BookingResponse validatePreview(BookingTiming timing, String uniqueId) {
-        MakerSpaceInvoicePreviewRequestItem previewItem = buildPreviewItem(uniqueId, timing);
+    BookingResponse validatePreview(BookingTiming timing, SetupData.Resource resource, String uniqueId) {
+        MakerSpaceInvoicePreviewRequestItem previewItem = buildPreviewItem(uniqueId, timing, resource);
         MakerSpaceInvoicePreviewResponse previewResponse = previewInvoice(Set.of(previewItem));
         return validatePreviewResponse(previewResponse);
     }
 
-    private MakerSpaceInvoicePreviewRequestItem buildPreviewItem(String uniqueId, BookingTiming timing) {
+    /**
+     * Previews several bookings with a single invoice preview.
+     * <p>
+     * Errors are mapped back to bookings by their unique id. When a failed preview cannot be attributed, bookings
+     * missing from the returned invoice lines are rejected, and if that is not conclusive either, each booking is
+     * previewed on its own.
+     *
+     * @param lines bookings to preview
+     * @return failure response per rejected booking unique id
+     */
+    Map<String, BookingResponse> validatePreview(List<BookingLine> lines) {
+        Set<MakerSpaceInvoicePreviewRequestItem> items = new LinkedHashSet<>();
+        for (BookingLine line : lines) {
+            items.add(buildPreviewItem(line.uniqueId(), line.timing(), line.resource()));
+        }
+        MakerSpaceInvoicePreviewResponse previewResponse = previewInvoice(items);
+        BookingResponse failure = validatePreviewResponse(previewResponse);
+        if (failure == null) {
+            return Map.of();
+        }
+        if (lines.size() == 1) {
+            return Map.of(lines.getFirst().uniqueId(), failure);
+        }
+        Map<String, BookingResponse> failures = attributeErrors(previewResponse, lines);
+        if (failures.isEmpty()) {
+            failures = rejectMissingLines(previewResponse, lines, failure);
+        }
+        if (failures.isEmpty()) {
+            failures = new HashMap<>();
+            for (BookingLine line : lines) {
+                BookingResponse lineFailure = validatePreview(line.timing(), line.resource(), line.uniqueId());
+                if (lineFailure != null) {
+                    failures.put(line.uniqueId(), lineFailure);
+                }
+            }
+        }
+        return failures;
+    }
+
+    private Map<String, BookingResponse> attributeErrors(
+            MakerSpaceInvoicePreviewResponse previewResponse,
+            List<BookingLine> lines) {
+        Map<String, List<String>> errorsById = new HashMap<>();
+        if (previewResponse != null && previewResponse.errors() != null) {
+            for (MakerSpaceInvoicePreviewResponse.Error error : previewResponse.errors()) {
+                String message = resolveErrorMessage(error);
+                if (message == null || message.isBlank()) {
+                    continue;
+                }
+                for (BookingLine line : lines) {
+                    if (mentions(error, line.uniqueId())) {
+                        errorsById.computeIfAbsent(line.uniqueId(), id -> new ArrayList<>()).add(message);
+                    }
+                }
+            }
+        }
+        Map<String, BookingResponse> failures = new HashMap<>();
+        errorsById.forEach((uniqueId, errors) -> failures.put(uniqueId, failureResponse("Booking is not available.", errors)));
+        return failures;
+    }
+
+    private static boolean mentions(MakerSpaceInvoicePreviewResponse.Error error, String uniqueId) {
+        return (error.message() != null && error.message().contains(uniqueId))
+                || (error.propertyName() != null && error.propertyName().contains(uniqueId));
+    }
+
+    private static Map<String, BookingResponse> rejectMissingLines(
+            MakerSpaceInvoicePreviewResponse previewResponse,
+            List<BookingLine> lines,
+            BookingResponse failure) {
+        if (previewResponse == null || previewResponse.lines() == null || previewResponse.lines().isEmpty()) {
+            return Map.of();
+        }
+        Set<String> previewed = new HashSet<>();
+        for (MakerSpaceInvoicePreviewResponse.Line line : previewResponse.lines()) {
+            previewed.add(line.bookingUniqueId());
+        }
+        Map<String, BookingResponse> failures = new HashMap<>();
+        for (BookingLine line : lines) {
+            if (!previewed.contains(line.uniqueId())) {
+                failures.put(line.uniqueId(), failure);
+            }
+        }
+        return failures;
+    }
+
+    private MakerSpaceInvoicePreviewRequestItem buildPreviewItem(String uniqueId, BookingTiming timing, SetupData.Resource resource) {
         MakerSpaceInvoicePreviewRequestItem.Booking booking = MakerSpaceInvoicePreviewRequestItem.Booking.builder()
-                .resourceId(setupData.embroideryMachine().id())
+                .resourceId(resource.id())
                 .fromTime(NexudusBookingTimeAdjuster.adjust(timing.startDateTime()))
                 .toTime(NexudusBookingTimeAdjuster.adjust(timing.endDateTime()))
                 .coworkerId(setupData.coworker().id())
@@ -9,6 +9,8 @@ import org.springframework.stereotype.Service;
 import java.time.LocalDateTime;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Service for querying pending bookings.
@@ -44,4 +46,35 @@ public class BookingQueryService {
                 .toList();
         return PendingBookingsResponse.of(summaries);
     }
+
+    /**
+     * Looks up a booking of the current user by id.
+     *
+     * @param bookingId booking id
+     * @return booking, if listed
+     */
+    Optional<MakerSpaceMyBookingsResponse.MyBooking> findBooking(long bookingId) {
+        return myBookings().filter(booking -> booking.id() == bookingId).findFirst();
+    }
+
+    /**
+     * Returns whether the current user holds a booking that is not cancelled for exactly this machine and time range.
+     *
+     * @param resourceId machine id
+     * @param fromTime booking start
+     * @param toTime booking end
+     * @return true when such a booking exists
+     */
+    boolean hasBooking(Long resourceId, LocalDateTime fromTime, LocalDateTime toTime) {
+        return myBookings()
+                .filter(booking -> !Boolean.TRUE.equals(booking.isCancelled()))
+                .anyMatch(booking -> resourceId.equals(booking.resourceId())
+                        && fromTime.equals(booking.fromTime())
+                        && toTime.equals(booking.toTime()));
+    }
+
+    private Stream<MakerSpaceMyBookingsResponse.MyBooking> myBookings() {
+        MakerSpaceMyBookingsResponse response = client.myBookings(DEFAULT_DEPTH);
+        return response == null || response.myBookings() == null ? Stream.empty() : response.myBookings().stream();
+    }
 }
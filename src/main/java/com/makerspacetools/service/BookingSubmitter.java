@@ -6,6 +6,8 @@ import com.makerspacetools.model.SetupData;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+
 /**
  * Service for submitting booking requests.
  */
@@ -21,20 +23,39 @@ class BookingSubmitter {
         this.setupData = setupData;
     }
 
-    void submitBooking(BookingTiming timing, String uniqueId) {
-        MakerSpaceBasketRequest makerSpaceBasketRequest = buildBasket(uniqueId, timing);
+    void submitBooking(BookingTiming timing, SetupData.Resource resource, String uniqueId) {
+        MakerSpaceBasketRequest makerSpaceBasketRequest = buildBasket(uniqueId, timing, resource);
         client.bookProduct(makerSpaceBasketRequest);
     }
 
-    private MakerSpaceBasketRequest buildBasket(String uniqueId, BookingTiming timing) {
-        MakerSpaceBasketRequest.Booking booking = MakerSpaceBasketRequest.Booking.builder()
+    /**
+     * Submits several bookings in a single basket.
+     *
+     * @param lines bookings to submit
+     */
+    void submitBooking(List<BookingLine> lines) {
+        List<MakerSpaceBasketRequest.BasketItem> items = lines.stream()
+                .map(line -> MakerSpaceBasketRequest.BasketItem.of(buildBooking(line.uniqueId(), line.timing(), line.resource())))
+                .toList();
+        client.bookProduct(MakerSpaceBasketRequest.of(items));
+    }
+
+    void submitBasket(MakerSpaceBasketRequest basket) {
+        client.bookProduct(basket);
+    }
+
+    MakerSpaceBasketRequest buildBasket(String uniqueId, BookingTiming timing, SetupData.Resource resource) {
+        MakerSpaceBasketRequest.BasketItem item = MakerSpaceBasketRequest.BasketItem.of(buildBooking(uniqueId, timing, resource));
+        return MakerSpaceBasketRequest.of(item);
+    }
+
+    private MakerSpaceBasketRequest.Booking buildBooking(String uniqueId, BookingTiming timing, SetupData.Resource resource) {
+        return MakerSpaceBasketRequest.Booking.builder()
                 .uniqueId(uniqueId)
                 .fromTime(NexudusBookingTimeAdjuster.adjust(timing.startDateTime()))
                 .toTime(NexudusBookingTimeAdjuster.adjust(timing.endDateTime()))
-                .resourceId(setupData.embroideryMachine().id())
+                .resourceId(resource.id())
                 .coworkerId(setupData.coworker().id())
                 .build();
-        MakerSpaceBasketRequest.BasketItem item = MakerSpaceBasketRequest.BasketItem.of(booking);
-        return MakerSpaceBasketRequest.of(item);
     }
 }
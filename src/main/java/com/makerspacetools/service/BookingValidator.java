@@ -2,7 +2,7 @@ package com.makerspacetools.service;
 
 import com.makerspacetools.api.BookingRequest;
 import com.makerspacetools.api.BookingResponse;
-import com.makerspacetools.makerspace.response.MakerSpaceResourceAvailabilityResponse;
+import com.makerspacetools.model.SetupData;
 import com.makerspacetools.model.WorkDaySchedule;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -14,8 +14,6 @@ import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.ZoneId;
 import java.util.List;
-import java.util.Map;
-import java.util.TreeMap;
 
 /**
  * Validates booking requests and builds booking timing.
@@ -33,6 +31,22 @@ class BookingValidator {
     }
 
     BookingTiming validate(BookingRequest request) {
+        BookingTiming timing = validateLocally(request);
+        BookingResponse horizonError = validateBookingHorizon(timing.startInstant());
+        if (horizonError != null) {
+            throw new BookingValidationException(horizonError);
+        }
+        return timing;
+    }
+
+    /**
+     * Validates the request and working hours without checking the booking horizon, so bookings can be prepared
+     * before their window opens.
+     *
+     * @param request booking request
+     * @return booking timing
+     */
+    BookingTiming validateLocally(BookingRequest request) {
         BookingResponse error = validateBookingRequest(request);
         if (error != null) {
             throw new BookingValidationException(error);
@@ -42,24 +56,24 @@ class BookingValidator {
         if (windowError != null) {
             throw new BookingValidationException(windowError);
         }
-        BookingResponse horizonError = validateBookingHorizon(timing.startInstant());
-        if (horizonError != null) {
-            throw new BookingValidationException(horizonError);
-        }
-        AvailabilityContext slotContext = availabilityService.availabilityContext(timing.date());
+        return timing;
+    }
+
+    /**
+     * Checks the booking against the availability of a machine, reusing a recent cached snapshot.
+     *
+     * @param timing validated booking timing
+     * @param resource machine to check
+     * @param snapshotVersion availability snapshot version the caller rendered, or null
+     * @return failure response, or null when the range is free
+     */
+    BookingResponse validateAvailability(BookingTiming timing, SetupData.Resource resource, Long snapshotVersion) {
+        AvailabilityContext slotContext = availabilityService.availabilityContext(resource, timing.date(), snapshotVersion);
         BookingResponse intervalError = validateInterval(timing.durationMinutes(), slotContext.intervalMinutes());
         if (intervalError != null) {
-            throw new BookingValidationException(intervalError);
+            return intervalError;
         }
-        BookingResponse availabilityError = validateSlotAvailability(
-                slotContext.slots(),
-                timing.startTime(),
-                timing.durationMinutes(),
-                slotContext.intervalMinutes());
-        if (availabilityError != null) {
-            throw new BookingValidationException(availabilityError);
-        }
-        return timing;
+        return validateSlotAvailability(slotContext, timing.startTime(), timing.durationMinutes());
     }
 
     private BookingTiming resolveTiming(BookingRequest request) {
@@ -122,38 +136,15 @@ class BookingValidator {
     }
 
     private static BookingResponse validateSlotAvailability(
-            List<MakerSpaceResourceAvailabilityResponse.AvailableSlot> slotsForDate,
+            AvailabilityContext slotContext,
             LocalTime startTime,
-            int durationMinutes,
-            int intervalMinutes) {
-        if (!isSlotRangeAvailable(slotsForDate, startTime, durationMinutes, intervalMinutes)) {
+            int durationMinutes) {
+        if (!slotContext.isRangeFree(startTime, durationMinutes)) {
             return failureResponse("Selected time is not available.", List.of("Pick a different start time."));
         }
         return null;
     }
 
-    private static boolean isSlotRangeAvailable(
-            List<MakerSpaceResourceAvailabilityResponse.AvailableSlot> slots,
-            LocalTime startTime,
-            int durationMinutes,
-            int intervalMinutes) {
-        Map<LocalTime, MakerSpaceResourceAvailabilityResponse.AvailableSlot> slotMap = new TreeMap<>();
-        for (MakerSpaceResourceAvailabilityResponse.AvailableSlot slot : slots) {
-            if (slot.dateTime() != null) {
-                slotMap.put(slot.dateTime().toLocalTime(), slot);
-            }
-        }
-        int requiredSlots = durationMinutes / intervalMinutes;
-        for (int index = 0; index < requiredSlots; index++) {
-            LocalTime time = startTime.plusMinutes((long) index * intervalMinutes);
-            MakerSpaceResourceAvailabilityResponse.AvailableSlot slot = slotMap.get(time);
-            if (slot == null || slot.booked() || !slot.available()) {
-                return false;
-            }
-        }
-        return true;
-    }
-
     private static BookingResponse failureResponse(String message, List<String> errors) {
         return new BookingResponse(false, message, errors);
     }
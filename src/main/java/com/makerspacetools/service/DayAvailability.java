@@ -0,0 +1,35 @@
+package com.makerspacetools.service;
+
+import com.makerspacetools.model.WorkDaySchedule;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Availability of a resource for a single day.
+ *
+ * @param resourceName resource name reported by the MakerSpace API
+ * @param grid slot grid for the day
+ * @param freeRuns contiguous free runs within business hours, precomputed for window searches
+ * @param version snapshot version shared by every day of the same upstream load, 0 when not loaded
+ * @param loadedAt time the snapshot was loaded, or null when not loaded
+ */
+record DayAvailability(
+        String resourceName,
+        SlotGrid grid,
+        List<SlotGrid.FreeRun> freeRuns,
+        long version,
+        Instant loadedAt) {
+
+    static DayAvailability of(String resourceName, SlotGrid grid) {
+        List<SlotGrid.FreeRun> freeRuns = grid.withinSchedule(WorkDaySchedule.businessHours()).freeRuns();
+        return new DayAvailability(resourceName, grid, List.copyOf(freeRuns), 0L, null);
+    }
+
+    /**
+     * Returns a copy stamped with the snapshot version of its load.
+     */
+    DayAvailability withVersion(long version, Instant loadedAt) {
+        return new DayAvailability(resourceName, grid, freeRuns, version, loadedAt);
+    }
+}
@@ -0,0 +1,45 @@
+package com.makerspacetools.service;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Map;
+
+/**
+ * Availability of every pooled machine for one day, used to rule out bookings before any booking call.
+ */
+public final class DayPrecheck {
+
+    private final LocalDate date;
+    private final Map<Long, SlotGrid> grids;
+
+    DayPrecheck(LocalDate date, Map<Long, SlotGrid> grids) {
+        this.date = date;
+        this.grids = grids;
+    }
+
+    /**
+     * Returns the checked date.
+     *
+     * @return date
+     */
+    public LocalDate date() {
+        return date;
+    }
+
+    /**
+     * Returns whether the range may still be booked. Without a machine, any pooled machine counts; an unknown
+     * machine is never ruled out, so the booking flow reports it.
+     *
+     * @param startTime range start
+     * @param durationMinutes range length in minutes
+     * @param resourceId requested machine id, or null for the pool
+     * @return false when the range is known to be taken
+     */
+    public boolean mayBook(LocalTime startTime, int durationMinutes, Long resourceId) {
+        if (resourceId == null) {
+            return grids.values().stream().anyMatch(grid -> grid.isRangeFree(startTime, durationMinutes));
+        }
+        SlotGrid grid = grids.get(resourceId);
+        return grid == null || grid.isRangeFree(startTime, durationMinutes);
+    }
+}
@@ -1,10 +1,15 @@
 package com.makerspacetools.service;
 
+import com.makerspacetools.api.AvailabilityCacheStats;
+import com.makerspacetools.api.AvailabilityMatrixResponse;
 import com.makerspacetools.api.AvailabilitySlot;
+import com.makerspacetools.api.FreeWindowSearchRequest;
+import com.makerspacetools.api.FreeWindowSearchResponse;
 import com.makerspacetools.api.MachineAvailabilityResponse;
-import com.makerspacetools.makerspace.response.MakerSpaceResourceAvailabilityResponse;
+import com.makerspacetools.auth.MakerSpaceAuthService;
 import com.makerspacetools.model.SetupData;
 import com.makerspacetools.model.WorkDaySchedule;
+import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
@@ -16,11 +21,16 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.ZoneId;
-import java.time.format.DateTimeFormatter;
-import java.time.temporal.ChronoUnit;
-import java.util.Comparator;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Objects;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * Service for machine availability queries.
@@ -29,89 +39,299 @@ import java.util.Objects;
 public class MachineAvailabilityChecker {
 
     private static final int DEFAULT_INTERVAL_MINUTES = 30;
-    private static final int MAX_BOOKING_HOURS_AHEAD = 360;
+    private static final int MAX_BOOKING_DURATION_MINUTES = 240;
+    private static final int MINUTES_PER_DAY = 24 * 60;
     private static final String DEFAULT_MACHINE_NAME = "Embroidery Machine";
 
     private final MachineQueryService queryService;
     private final SetupData setupData;
+    private final MakerSpaceAuthService authService;
+    private final AvailabilityProperties properties;
+    private final ExecutorService loadExecutor;
+    private final Semaphore loadPermits;
 
     @Autowired
-    MachineAvailabilityChecker(MachineQueryService queryService, SetupData setupData) {
+    MachineAvailabilityChecker(
+            MachineQueryService queryService,
+            SetupData setupData,
+            MakerSpaceAuthService authService,
+            AvailabilityProperties properties) {
         this.queryService = queryService;
         this.setupData = setupData;
+        this.authService = authService;
+        this.properties = properties;
+        this.loadExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        this.loadPermits = new Semaphore(properties.maxConcurrentLoads());
     }
 
     /**
-     * Loads availability for the given date.
+     * Loads availability of the default machine for the given date.
      *
      * @param date date to query
      * @return availability response for the date
      */
     public MachineAvailabilityResponse availabilityFor(LocalDate date) {
+        return availabilityFor(date, null);
+    }
+
+    /**
+     * Loads availability of a machine for the given date.
+     *
+     * @param date date to query
+     * @param resourceId machine id, or null for the default machine
+     * @return availability response for the date
+     */
+    public MachineAvailabilityResponse availabilityFor(LocalDate date, Long resourceId) {
         validateDate(date);
-        MakerSpaceResourceAvailabilityResponse availability = loadAvailability(date);
-        List<MakerSpaceResourceAvailabilityResponse.AvailableSlot> slotsForDate = slotsForDate(availability, date).stream()
-                .filter(slot -> WorkDaySchedule.businessHours().isWithinSchedule(slot.dateTime()))
-                .toList();
-        List<AvailabilitySlot> slots = slotsForDate.stream()
-                .map(AvailabilitySlot::from)
-                .toList();
-        String resourceName = availability.resource() == null ? DEFAULT_MACHINE_NAME : availability.resource().name();
-        return new MachineAvailabilityResponse(resourceName, date, slots);
+        return availabilityOf(resolveResource(resourceId), date);
+    }
+
+    /**
+     * Loads availability of every pooled machine for the given date.
+     * Machines are loaded concurrently, limited by {@code availability.max-concurrent-loads}.
+     *
+     * @param date date to query
+     * @return availability per machine
+     */
+    public AvailabilityMatrixResponse availabilityMatrix(LocalDate date) {
+        validateDate(date);
+        return new AvailabilityMatrixResponse(date, forEachResource(resource -> availabilityOf(resource, date)));
+    }
+
+    /**
+     * Returns the availability used to validate a booking. A cached snapshot is reused when it is younger than
+     * {@code availability.validation-max-age} and at least as new as the snapshot the caller rendered.
+     */
+    AvailabilityContext availabilityContext(SetupData.Resource resource, LocalDate date, Long snapshotVersion) {
+        DayAvailability availability = queryService.checkAvailability(
+                resource,
+                date,
+                BookingHorizon.current(),
+                DEFAULT_INTERVAL_MINUTES,
+                snapshotVersion,
+                properties.validationMaxAge());
+        if (availability == null) {
+            return new AvailabilityContext(SlotGrid.empty(date, DEFAULT_INTERVAL_MINUTES));
+        }
+        return new AvailabilityContext(availability.grid());
+    }
+
+    /**
+     * Loads the day for every pooled machine at once, so several bookings for the day can be ruled out with
+     * one upstream call. The snapshots stay cached and are reused by the following booking validation.
+     *
+     * @param date date to check
+     * @return availability of the pool
+     */
+    public DayPrecheck precheck(LocalDate date) {
+        validateDate(date);
+        List<SetupData.Resource> resources = pool();
+        List<SlotGrid> grids = forEachResource(resource -> availabilityContext(resource, date, null).grid());
+        Map<Long, SlotGrid> byResource = new HashMap<>();
+        for (int index = 0; index < resources.size(); index++) {
+            byResource.put(resources.get(index).id(), grids.get(index));
+        }
+        return new DayPrecheck(date, byResource);
+    }
+
+    List<SetupData.Resource> pool() {
+        return setupData.resources();
+    }
+
+    SetupData.Resource resolveResource(Long resourceId) {
+        if (resourceId == null) {
+            return setupData.defaultResource();
+        }
+        SetupData.Resource resource = setupData.resource(resourceId);
+        if (resource == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown resource: " + resourceId);
+        }
+        return resource;
+    }
+
+    /**
+     * Finds free windows of at least the requested duration within the booking horizon.
+     * Days are read from the availability cache, so a search costs at most one upstream call.
+     *
+     * @param request search criteria
+     * @return matching windows in chronological order
+     */
+    public FreeWindowSearchResponse searchFreeWindows(FreeWindowSearchRequest request) {
+        validateSearch(request);
+        BookingHorizon horizon = BookingHorizon.current();
+        LocalDate from = request.from() == null || request.from().isBefore(horizon.firstDate()) ? horizon.firstDate() : request.from();
+        LocalDate to = request.to() == null || request.to().isAfter(horizon.lastDate()) ? horizon.lastDate() : request.to();
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime maxStart = LocalDateTime.ofInstant(maxAllowedInstant(), ZoneId.systemDefault());
+        List<FreeWindowSearchResponse.FreeWindow> windows = new ArrayList<>();
+        for (LocalDate date = from; !date.isAfter(to) && windows.size() < request.limit(); date = date.plusDays(1)) {
+            if (!WorkDaySchedule.businessHours().isWorkday(date.getDayOfWeek())) {
+                continue;
+            }
+            if (!request.daysOfWeek().isEmpty() && !request.daysOfWeek().contains(date.getDayOfWeek())) {
+                continue;
+            }
+            DayAvailability availability = loadAvailability(setupData.defaultResource(), date);
+            int interval = availability.grid().intervalMinutes();
+            int earliestStart = ceilToInterval(minuteOf(request.earliestStart(), 0), interval);
+            if (date.equals(now.toLocalDate())) {
+                earliestStart = Math.max(earliestStart, ceilToInterval(minuteOf(now.toLocalTime(), 0) + 1, interval));
+            }
+            int latestEnd = floorToInterval(minuteOf(request.latestEnd(), MINUTES_PER_DAY), interval);
+            int latestStart = date.equals(maxStart.toLocalDate())
+                    ? floorToInterval(minuteOf(maxStart.toLocalTime(), 0), interval)
+                    : MINUTES_PER_DAY;
+            for (SlotGrid.FreeRun run : availability.freeRuns()) {
+                int start = Math.max(run.startMinute(), earliestStart);
+                int end = Math.min(run.endMinute(), latestEnd);
+                if (start > latestStart || windows.size() >= request.limit()) {
+                    break;
+                }
+                if (end - start >= request.durationMinutes()) {
+                    windows.add(new FreeWindowSearchResponse.FreeWindow(date, timeOfMinute(start), timeOfMinute(end)));
+                }
+            }
+        }
+        return new FreeWindowSearchResponse(request.durationMinutes(), windows);
+    }
+
+    /**
+     * Returns counters for the availability cache.
+     *
+     * @return cache statistics
+     */
+    public AvailabilityCacheStats cacheStats() {
+        return queryService.stats();
+    }
+
+    void prefetch(BookingHorizon range, Duration freshFor) {
+        forEachResource(resource -> queryService.checkAvailabilityRange(resource, range, DEFAULT_INTERVAL_MINUTES, freshFor));
+    }
+
+    void reload(SetupData.Resource resource, LocalDate date) {
+        queryService.checkAvailabilityRange(resource, new BookingHorizon(date, date), DEFAULT_INTERVAL_MINUTES);
     }
 
-    AvailabilityContext availabilityContext(LocalDate date) {
-        MakerSpaceResourceAvailabilityResponse availability = loadAvailability(date);
-        List<MakerSpaceResourceAvailabilityResponse.AvailableSlot> slotsForDate = slotsForDate(availability, date);
-        int intervalMinutes = resolveIntervalMinutes(slotsForDate);
-        return new AvailabilityContext(slotsForDate, intervalMinutes);
+    void invalidate(SetupData.Resource resource, LocalDate date) {
+        queryService.invalidate(resource, date);
+    }
+
+    void invalidateAll() {
+        queryService.invalidateAll();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        loadExecutor.shutdownNow();
     }
 
     static void validateDate(LocalDate date) {
-        LocalDate today = LocalDate.now();
-        if (date.isBefore(today)) {
+        BookingHorizon horizon = BookingHorizon.current();
+        if (date.isBefore(horizon.firstDate())) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Date must be today or later.");
         }
-        Instant maxAllowed = maxAllowedInstant();
-        LocalDate maxDate = LocalDateTime.ofInstant(maxAllowed, ZoneId.systemDefault()).toLocalDate();
-        if (date.isAfter(maxDate)) {
+        if (date.isAfter(horizon.lastDate())) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Date is more than %d hours in the future."
-                    .formatted(MAX_BOOKING_HOURS_AHEAD));
+                    .formatted(BookingHorizon.MAX_BOOKING_HOURS_AHEAD));
         }
     }
 
     static Instant maxAllowedInstant() {
-        return Instant.now().plus(MAX_BOOKING_HOURS_AHEAD, ChronoUnit.HOURS);
+        return BookingHorizon.maxAllowedInstant();
+    }
+
+    private static void validateSearch(FreeWindowSearchRequest request) {
+        if (request.durationMinutes() <= 0 || request.durationMinutes() > MAX_BOOKING_DURATION_MINUTES) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Duration must be between 1 and %d minutes."
+                    .formatted(MAX_BOOKING_DURATION_MINUTES));
+        }
+        if (request.from() != null && request.to() != null && request.from().isAfter(request.to())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Search start must not be after its end.");
+        }
+        if (request.earliestStart() != null && request.latestEnd() != null && !request.earliestStart().isBefore(request.latestEnd())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Earliest start must be before latest end.");
+        }
     }
 
-    private MakerSpaceResourceAvailabilityResponse loadAvailability(LocalDate date) {
-        String startTime = LocalDateTime.of(date, LocalTime.MIDNIGHT).format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
-        String guid = setupData.embroideryMachine().guid();
-        return queryService.checkAvailability(1, guid, startTime, DEFAULT_INTERVAL_MINUTES);
+    private static int minuteOf(LocalTime time, int defaultMinute) {
+        return time == null ? defaultMinute : time.toSecondOfDay() / 60;
     }
 
-    private List<MakerSpaceResourceAvailabilityResponse.AvailableSlot> slotsForDate(
-            MakerSpaceResourceAvailabilityResponse availability,
-            LocalDate date) {
-        if (availability == null || availability.availableSlots() == null) {
-            return List.of();
+    private static int ceilToInterval(int minute, int interval) {
+        return (minute + interval - 1) / interval * interval;
+    }
+
+    private static int floorToInterval(int minute, int interval) {
+        return minute / interval * interval;
+    }
+
+    private static LocalTime timeOfMinute(int minute) {
+        return LocalTime.of(minute / 60, minute % 60);
+    }
+
+    private MachineAvailabilityResponse availabilityOf(SetupData.Resource resource, LocalDate date) {
+        DayAvailability availability = loadAvailability(resource, date);
+        List<AvailabilitySlot> slots = availability.grid()
+                .withinSchedule(WorkDaySchedule.businessHours())
+                .toSlots();
+        String resourceName = resolveName(resource, availability);
+        return new MachineAvailabilityResponse(resource.id(), resourceName, date, slots, availability.version());
+    }
+
+    private static String resolveName(SetupData.Resource resource, DayAvailability availability) {
+        if (resource.name() != null) {
+            return resource.name();
+        }
+        return availability.resourceName() == null ? DEFAULT_MACHINE_NAME : availability.resourceName();
+    }
+
+    /**
+     * Runs the action for every pooled machine on virtual threads, holding one load permit per running action,
+     * and returns the results in pool order. The first failure is rethrown once all actions have finished.
+     */
+    private <T> List<T> forEachResource(Function<SetupData.Resource, T> action) {
+        List<SetupData.Resource> resources = setupData.resources();
+        if (resources.size() == 1) {
+            return List.of(action.apply(resources.getFirst()));
+        }
+        List<CompletableFuture<T>> futures = new ArrayList<>(resources.size());
+        for (SetupData.Resource resource : resources) {
+            CompletableFuture<T> future = new CompletableFuture<>();
+            futures.add(future);
+            loadExecutor.execute(authService.withCurrentContext(() -> runWithPermit(future, () -> action.apply(resource))));
         }
-        return availability.availableSlots().stream()
-                .filter(slot -> slot.dateTime() != null && Objects.equals(slot.dateTime().toLocalDate(), date))
-                .sorted(Comparator.comparing(MakerSpaceResourceAvailabilityResponse.AvailableSlot::dateTime))
-                .toList();
+        MachineQueryService.await(
+                CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).exceptionally(exception -> null),
+                properties.loadTimeout());
+        List<T> results = new ArrayList<>(futures.size());
+        for (CompletableFuture<T> future : futures) {
+            results.add(MachineQueryService.await(future, properties.loadTimeout()));
+        }
+        return results;
     }
 
-    private static int resolveIntervalMinutes(List<MakerSpaceResourceAvailabilityResponse.AvailableSlot> slots) {
-        if (slots.size() < 2) {
-            return DEFAULT_INTERVAL_MINUTES;
+    private <T> void runWithPermit(CompletableFuture<T> future, Supplier<T> action) {
+        try {
+            loadPermits.acquire();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            future.completeExceptionally(exception);
+            return;
+        }
+        try {
+            future.complete(action.get());
+        } catch (RuntimeException | Error exception) {
+            future.completeExceptionally(exception);
+        } finally {
+            loadPermits.release();
         }
-        LocalDateTime first = slots.getFirst().dateTime();
-        LocalDateTime second = slots.get(1).dateTime();
-        if (first == null || second == null) {
-            return DEFAULT_INTERVAL_MINUTES;
+    }
+
+    private DayAvailability loadAvailability(SetupData.Resource resource, LocalDate date) {
+        DayAvailability availability = queryService.checkAvailability(resource, date, BookingHorizon.current(), DEFAULT_INTERVAL_MINUTES);
+        if (availability == null) {
+            return DayAvailability.of(null, SlotGrid.empty(date, DEFAULT_INTERVAL_MINUTES));
         }
-        long minutes = Duration.between(first, second).toMinutes();
-        return minutes <= 0 ? DEFAULT_INTERVAL_MINUTES : (int) minutes;
+        return availability;
     }
 }
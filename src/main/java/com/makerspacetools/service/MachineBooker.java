@@ -1,36 +1,78 @@
 package com.makerspacetools.service;
 
+import com.makerspacetools.api.BatchBookingResponse;
 import com.makerspacetools.api.BookingRequest;
 import com.makerspacetools.api.BookingResponse;
 import com.makerspacetools.auth.MakerSpaceAuthService;
+import com.makerspacetools.model.SetupData;
+import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestClientResponseException;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
 /**
  * Coordinates the booking flow.
+ * <p>
+ * After local validation, the availability check and the invoice preview run concurrently on virtual threads,
+ * so a booking costs one round trip less before it is submitted.
+ * <p>
+ * Every submission is recorded in the {@link BookingLedger} before it is sent. Retries of a submission with an
+ * unknown outcome reuse its unique id, and requests for a slot that is already confirmed are answered without
+ * calling MakerSpace.
  */
 @Service
 public class MachineBooker {
+
+    private static final int MAX_BATCH_SIZE = 20;
+    private static final BookingResponse NO_MACHINES = new BookingResponse(false, "No machines are configured.", List.of());
+    private static final BookingResponse ALREADY_CONFIRMED = new BookingResponse(true, "Booking already confirmed.", List.of());
+    private static final BookingResponse IN_PROGRESS =
+            new BookingResponse(false, "A booking for this slot is already in progress.", List.of());
+
     private final BookingValidator validationService;
     private final BookingPreviewer previewService;
     private final BookingSubmitter submissionService;
     private final MakerSpaceAuthService authService;
+    private final MachineAvailabilityChecker availabilityService;
+    private final BookingQueryService queryService;
+    private final BookingLedger ledger;
+    private final Duration checkTimeout;
+    private final ExecutorService checkExecutor;
 
     @Autowired
     MachineBooker(
             BookingValidator validationService,
             BookingPreviewer previewService,
             BookingSubmitter submissionService,
-            MakerSpaceAuthService authService) {
+            MakerSpaceAuthService authService,
+            MachineAvailabilityChecker availabilityService,
+            BookingQueryService queryService,
+            BookingLedger ledger,
+            AvailabilityProperties availabilityProperties) {
         this.validationService = validationService;
         this.previewService = previewService;
         this.submissionService = submissionService;
         this.authService = authService;
+        this.availabilityService = availabilityService;
+        this.queryService = queryService;
+        this.ledger = ledger;
+        this.checkTimeout = availabilityProperties.loadTimeout();
+        this.checkExecutor = Executors.newVirtualThreadPerTaskExecutor();
     }
 
     /**
@@ -53,6 +95,121 @@ public class MachineBooker {
         return bookScheduled(request);
     }
 
+    /**
+     * Prepares a booking whose window has not opened yet, so it can be submitted the moment it opens.
+     * Only local validation runs, because MakerSpace rejects availability and preview checks until then.
+     * Without a requested machine, the default machine of the pool is used. A slot with an earlier submission
+     * in the ledger keeps its unique id, and a slot that is already confirmed is rejected.
+     *
+     * @param request booking request
+     * @return prepared booking
+     */
+    public PreparedBooking prepare(BookingRequest request) {
+        BookingTiming timing = validationService.validateLocally(request);
+        SetupData.Resource resource = candidates(request).stream()
+                .findFirst()
+                .orElseThrow(() -> new BookingValidationException(NO_MACHINES));
+        BookingLedgerEntry entry = ledger.find(resource, timing);
+        if (entry != null && entry.state() == BookingLedgerEntry.State.CONFIRMED) {
+            throw new BookingValidationException(ALREADY_CONFIRMED);
+        }
+        String uniqueId = entry == null ? UUID.randomUUID().toString() : entry.uniqueId();
+        return new PreparedBooking(timing, resource, uniqueId, submissionService.buildBasket(uniqueId, timing, resource));
+    }
+
+    /**
+     * Reloads availability of the prepared booking's day, which also warms up the upstream connection.
+     *
+     * @param booking prepared booking
+     */
+    public void warmUp(PreparedBooking booking) {
+        availabilityService.reload(booking.resource(), booking.timing().date());
+    }
+
+    /**
+     * Submits a prepared booking without further checks.
+     *
+     * @param booking prepared booking
+     * @param beforeSend called right before the basket is sent, after the ledger has been updated
+     * @return booking result
+     */
+    public BookingResponse submitPrepared(PreparedBooking booking, Runnable beforeSend) {
+        BookingLedger.Claim claim = ledger.claim(booking.resource(), booking.timing());
+        if (claim == null) {
+            return IN_PROGRESS;
+        }
+        try {
+            if (claim.state() == BookingLedgerEntry.State.CONFIRMED) {
+                return ALREADY_CONFIRMED;
+            }
+            BookingLedger.Claim prepared = new BookingLedger.Claim(claim.key(), booking.uniqueId(), claim.state());
+            ledger.markPending(prepared);
+            beforeSend.run();
+            submissionService.submitBasket(booking.basket());
+            ledger.confirm(prepared);
+        } catch (RestClientResponseException exception) {
+            return failureFromException(exception);
+        } finally {
+            ledger.release(claim);
+        }
+        availabilityService.invalidate(booking.resource(), booking.timing().date());
+        return new BookingResponse(true, "Booking confirmed.", List.of());
+    }
+
+    /**
+     * Books several slots with one invoice preview and one basket.
+     * Each booking is validated locally first; only bookings accepted by the preview are submitted.
+     * Bookings for slots that are already confirmed in the ledger succeed without being submitted again.
+     *
+     * @param requests booking requests
+     * @return result per booking, in request order
+     */
+    public BatchBookingResponse bookBatch(List<BookingRequest> requests) {
+        if (requests == null || requests.isEmpty() || requests.size() > MAX_BATCH_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "A batch must contain between 1 and %d bookings."
+                    .formatted(MAX_BATCH_SIZE));
+        }
+        BookingResponse[] results = new BookingResponse[requests.size()];
+        List<BookingLine> lines = new ArrayList<>();
+        Map<BookingLine, BookingLedger.Claim> claims = new HashMap<>();
+        try {
+            for (int index = 0; index < requests.size(); index++) {
+                try {
+                    BookingLine line = prepareLine(index, requests.get(index), lines, claims);
+                    if (line != null) {
+                        lines.add(line);
+                    } else {
+                        results[index] = ALREADY_CONFIRMED;
+                    }
+                } catch (BookingValidationException exception) {
+                    results[index] = exception.response();
+                } catch (ResponseStatusException exception) {
+                    results[index] = new BookingResponse(false, exception.getReason(), List.of());
+                }
+            }
+            if (!lines.isEmpty()) {
+                try {
+                    submitLines(lines, claims, results);
+                } catch (RestClientResponseException exception) {
+                    BookingResponse failure = failureFromException(exception);
+                    lines.stream()
+                            .filter(line -> results[line.index()] == null)
+                            .forEach(line -> results[line.index()] = failure);
+                }
+            }
+        } finally {
+            claims.values().forEach(ledger::release);
+        }
+        List<BookingResponse> responses = List.of(results);
+        int confirmed = (int) responses.stream().filter(BookingResponse::success).count();
+        return new BatchBookingResponse(confirmed, responses.size() - confirmed, responses);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        checkExecutor.shutdownNow();
+    }
+
     private BookingResponse bookManual(BookingRequest request) {
         try {
             return bookWithPreview(request);
@@ -80,13 +237,183 @@ public class MachineBooker {
 
     private BookingResponse bookWithPreview(BookingRequest request) {
         BookingTiming timing = validationService.validate(request);
-        String uniqueId = UUID.randomUUID().toString();
-        BookingResponse previewError = previewService.validatePreview(timing, uniqueId);
-        if (previewError != null) {
-            return previewError;
+        List<SetupData.Resource> candidates = candidates(request);
+        BookingResponse failure = NO_MACHINES;
+        for (SetupData.Resource resource : candidates) {
+            failure = bookResource(timing, resource, snapshotVersion(request, resource));
+            if (failure == null) {
+                return new BookingResponse(true, confirmationMessage(resource, candidates.size()), List.of());
+            }
         }
-        submissionService.submitBooking(timing, uniqueId);
-        return new BookingResponse(true, "Booking confirmed.", List.of());
+        return failure;
+    }
+
+    /**
+     * Books the slot on one machine, consulting the ledger before any remote call.
+     *
+     * @return failure response, or null when the slot is booked
+     */
+    private BookingResponse bookResource(BookingTiming timing, SetupData.Resource resource, Long snapshotVersion) {
+        BookingLedger.Claim claim = ledger.claim(resource, timing);
+        if (claim == null) {
+            return IN_PROGRESS;
+        }
+        try {
+            if (claim.state() == BookingLedgerEntry.State.CONFIRMED) {
+                return null;
+            }
+            if (recoverPending(claim, resource, timing)) {
+                return null;
+            }
+            String uniqueId = claim.uniqueId();
+            BookingResponse checkError = firstFailure(List.of(
+                    () -> validationService.validateAvailability(timing, resource, snapshotVersion),
+                    () -> previewService.validatePreview(timing, resource, uniqueId)));
+            if (checkError != null) {
+                return checkError;
+            }
+            ledger.markPending(claim);
+            submissionService.submitBooking(timing, resource, uniqueId);
+            ledger.confirm(claim);
+            availabilityService.invalidate(resource, timing.date());
+            return null;
+        } finally {
+            ledger.release(claim);
+        }
+    }
+
+    /**
+     * Confirms a pending claim when MakerSpace already holds the booking, which is the case when an earlier
+     * submission went through but its outcome was lost.
+     *
+     * @return true when the booking exists and the claim was confirmed
+     */
+    private boolean recoverPending(BookingLedger.Claim claim, SetupData.Resource resource, BookingTiming timing) {
+        if (claim.state() != BookingLedgerEntry.State.PENDING
+                || !queryService.hasBooking(resource.id(), timing.startDateTime(), timing.endDateTime())) {
+            return false;
+        }
+        ledger.confirm(claim);
+        availabilityService.invalidate(resource, timing.date());
+        return true;
+    }
+
+    /**
+     * Validates one batch booking and claims its slot in the ledger. A slot with a pending submission is
+     * checked against MakerSpace first, like a single booking, so a retried batch never books it twice.
+     *
+     * @return batch line, or null when the slot is already confirmed
+     */
+    private BookingLine prepareLine(
+            int index,
+            BookingRequest request,
+            List<BookingLine> accepted,
+            Map<BookingLine, BookingLedger.Claim> claims) {
+        BookingTiming timing = validationService.validate(request);
+        BookingResponse failure = NO_MACHINES;
+        for (SetupData.Resource resource : candidates(request)) {
+            boolean overlaps = accepted.stream().anyMatch(line -> line.overlaps(timing, resource));
+            if (overlaps) {
+                failure = new BookingResponse(false, "Booking overlaps another booking in this batch.", List.of());
+                continue;
+            }
+            BookingLedger.Claim claim = ledger.claim(resource, timing);
+            if (claim == null) {
+                failure = IN_PROGRESS;
+                continue;
+            }
+            try {
+                if (claim.state() == BookingLedgerEntry.State.CONFIRMED || recoverPending(claim, resource, timing)) {
+                    ledger.release(claim);
+                    return null;
+                }
+                failure = validationService.validateAvailability(timing, resource, snapshotVersion(request, resource));
+            } catch (RuntimeException exception) {
+                ledger.release(claim);
+                throw exception;
+            }
+            if (failure == null) {
+                BookingLine line = new BookingLine(index, claim.uniqueId(), timing, resource);
+                claims.put(line, claim);
+                return line;
+            }
+            ledger.release(claim);
+        }
+        throw new BookingValidationException(failure);
+    }
+
+    private void submitLines(List<BookingLine> lines, Map<BookingLine, BookingLedger.Claim> claims, BookingResponse[] results) {
+        Map<String, BookingResponse> previewErrors = previewService.validatePreview(lines);
+        List<BookingLine> accepted = new ArrayList<>(lines.size());
+        for (BookingLine line : lines) {
+            BookingResponse previewError = previewErrors.get(line.uniqueId());
+            if (previewError == null) {
+                accepted.add(line);
+            } else {
+                results[line.index()] = previewError;
+            }
+        }
+        if (accepted.isEmpty()) {
+            return;
+        }
+        accepted.forEach(line -> ledger.markPending(claims.get(line)));
+        submissionService.submitBooking(accepted);
+        for (BookingLine line : accepted) {
+            ledger.confirm(claims.get(line));
+            availabilityService.invalidate(line.resource(), line.timing().date());
+            results[line.index()] = new BookingResponse(true, "Booking confirmed.", List.of());
+        }
+    }
+
+    private List<SetupData.Resource> candidates(BookingRequest request) {
+        return request.resourceId() == null
+                ? availabilityService.pool()
+                : List.of(availabilityService.resolveResource(request.resourceId()));
+    }
+
+    private static Long snapshotVersion(BookingRequest request, SetupData.Resource resource) {
+        return resource.id().equals(request.resourceId()) ? request.snapshotVersion() : null;
+    }
+
+    /**
+     * Runs the checks concurrently and returns the first failure response, or null when every check passes.
+     * The remaining checks are interrupted as soon as one fails or the caller stops waiting; an exception thrown
+     * by a check is rethrown here. Interrupting an availability check only ends its wait, because
+     * {@link MachineQueryService} runs the shared upstream load on a thread of its own.
+     */
+    private BookingResponse firstFailure(List<Supplier<BookingResponse>> checks) {
+        CompletableFuture<BookingResponse> firstFailure = new CompletableFuture<>();
+        AtomicInteger remaining = new AtomicInteger(checks.size());
+        List<Future<?>> tasks = new ArrayList<>(checks.size());
+        for (Supplier<BookingResponse> check : checks) {
+            tasks.add(checkExecutor.submit(authService.withCurrentContext(() -> {
+                try {
+                    BookingResponse failure = check.get();
+                    if (failure != null) {
+                        firstFailure.complete(failure);
+                    }
+                } catch (RuntimeException | Error exception) {
+                    firstFailure.completeExceptionally(exception);
+                } finally {
+                    if (remaining.decrementAndGet() == 0) {
+                        firstFailure.complete(null);
+                    }
+                }
+            })));
+        }
+        try {
+            return MachineQueryService.await(firstFailure, checkTimeout);
+        } finally {
+            tasks.forEach(task -> task.cancel(true));
+        }
+    }
+
+    private static String confirmationMessage(SetupData.Resource resource, int candidateCount) {
+        if (candidateCount == 1) {
+            return "Booking confirmed.";
+        }
+        String label = resource.name() == null ? "resource " + resource.id() : resource.name();
+        return "Booking confirmed for %s.".formatted(label);
     }
 
     private BookingResponse failureFromException(RestClientResponseException exception) {
@@ -1,26 +1,346 @@
 package com.makerspacetools.service;
 
+import com.makerspacetools.api.AvailabilityCacheStats;
+import com.makerspacetools.api.AvailabilityDelta;
+import com.makerspacetools.auth.MakerSpaceAuthService;
 import com.makerspacetools.client.MakerSpaceClient;
-import com.makerspacetools.makerspace.response.MakerSpaceResourceAvailabilityResponse;
+import com.makerspacetools.model.SetupData;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Queries machine availability from the MakerSpace API.
+ * <p>
+ * Responses are cached per resource, date and interval. Fresh entries are served directly, stale entries are
+ * served while a background refresh runs, and expired entries are reloaded synchronously. Loads always cover
+ * the whole booking horizon in one upstream call, so a single miss warms every bookable date. Every stored
+ * snapshot is compared with the previous one of the same day and changed slots are sent to the
+ * {@link AvailabilityStream}. Each load is stamped with a snapshot version, which lets callers that already
+ * rendered a snapshot reuse it instead of loading again.
+ * <p>
+ * Upstream loads run on threads of their own, and every caller, including the one that started the load, only
+ * waits for the result. Interrupting a caller therefore ends its own wait but never fails a load that other
+ * callers share.
  */
+@Log4j2
 @Service
 class MachineQueryService {
 
     private final MakerSpaceClient client;
+    private final AvailabilityResponseDecoder decoder;
+    private final MakerSpaceAuthService authService;
+    private final AvailabilityProperties properties;
+    private final AvailabilityStream stream;
+    private final Map<AvailabilityKey, CachedAvailability> cache;
+    private final Map<AvailabilityKey, SlotGrid> published;
+    private final Set<RangeKey> refreshing;
+    private final Map<RangeKey, CompletableFuture<Map<LocalDate, DayAvailability>>> inFlight;
+    private final ExecutorService loadExecutor;
+    private final AtomicLong generation;
+    private final AtomicLong versions;
+    private final LongAdder hits;
+    private final LongAdder staleHits;
+    private final LongAdder misses;
+    private final LongAdder coalesced;
+    private final LongAdder evictions;
+    private final LongAdder invalidations;
 
     @Autowired
-    MachineQueryService(MakerSpaceClient client) {
+    MachineQueryService(
+            MakerSpaceClient client,
+            AvailabilityResponseDecoder decoder,
+            MakerSpaceAuthService authService,
+            AvailabilityProperties properties,
+            AvailabilityStream stream) {
         this.client = client;
+        this.decoder = decoder;
+        this.authService = authService;
+        this.properties = properties;
+        this.stream = stream;
+        this.cache = new ConcurrentHashMap<>();
+        this.published = new ConcurrentHashMap<>();
+        this.refreshing = ConcurrentHashMap.newKeySet();
+        this.inFlight = new ConcurrentHashMap<>();
+        this.loadExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        this.generation = new AtomicLong();
+        this.versions = new AtomicLong(System.currentTimeMillis());
+        this.hits = new LongAdder();
+        this.staleHits = new LongAdder();
+        this.misses = new LongAdder();
+        this.coalesced = new LongAdder();
+        this.evictions = new LongAdder();
+        this.invalidations = new LongAdder();
     }
 
-    MakerSpaceResourceAvailabilityResponse checkAvailability(int days, String guid, String startTime, int interval) {
-        return client.checkAvailability(days, guid, startTime, interval, Map.of());
+    DayAvailability checkAvailability(SetupData.Resource resource, LocalDate date, BookingHorizon horizon, int interval) {
+        AvailabilityKey key = new AvailabilityKey(resource.guid(), date, interval);
+        BookingHorizon range = horizon.contains(date) ? horizon : new BookingHorizon(date, date);
+        Instant now = Instant.now();
+        CachedAvailability cached = cache.get(key);
+        if (cached != null) {
+            if (cached.isFreshAt(now)) {
+                hits.increment();
+                return cached.availability();
+            }
+            if (cached.isServableAt(now)) {
+                staleHits.increment();
+                revalidate(resource, key, range);
+                return cached.availability();
+            }
+            if (cache.remove(key, cached)) {
+                evictions.increment();
+            }
+        }
+        misses.increment();
+        return checkAvailabilityRange(resource, range, interval).get(date);
+    }
+
+    /**
+     * Returns the cached snapshot of the date when it is younger than {@code maxAge} and not older than
+     * {@code minVersion}, otherwise loads the range synchronously. Stale entries are never served here.
+     */
+    DayAvailability checkAvailability(
+            SetupData.Resource resource,
+            LocalDate date,
+            BookingHorizon horizon,
+            int interval,
+            Long minVersion,
+            Duration maxAge) {
+        CachedAvailability cached = cache.get(new AvailabilityKey(resource.guid(), date, interval));
+        if (cached != null && cached.isYoungerThan(maxAge, Instant.now())
+                && (minVersion == null || cached.availability().version() >= minVersion)) {
+            hits.increment();
+            return cached.availability();
+        }
+        misses.increment();
+        BookingHorizon range = horizon.contains(date) ? horizon : new BookingHorizon(date, date);
+        return checkAvailabilityRange(resource, range, interval).get(date);
+    }
+
+    /**
+     * Loads every date of the range with a single upstream call and caches the per-date results.
+     * Concurrent callers for the same range and credential context share one in-flight request and receive the
+     * same result or exception. The request runs on a load thread, so a caller that is interrupted or gives up
+     * waiting does not cancel it for the others.
+     */
+    Map<LocalDate, DayAvailability> checkAvailabilityRange(SetupData.Resource resource, BookingHorizon range, int interval) {
+        return checkAvailabilityRange(resource, range, interval, properties.cacheTtl());
+    }
+
+    /**
+     * Loads the range like {@link #checkAvailabilityRange(SetupData.Resource, BookingHorizon, int)} but keeps the results
+     * fresh for the given time instead of the configured cache TTL.
+     */
+    Map<LocalDate, DayAvailability> checkAvailabilityRange(
+            SetupData.Resource resource,
+            BookingHorizon range,
+            int interval,
+            Duration freshFor) {
+        RangeKey key = new RangeKey(resource.guid(), range, interval, authService.isFallbackAllowed());
+        CompletableFuture<Map<LocalDate, DayAvailability>> created = new CompletableFuture<>();
+        CompletableFuture<Map<LocalDate, DayAvailability>> existing = inFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            coalesced.increment();
+            return await(existing, properties.loadTimeout());
+        }
+        Runnable load = authService.withCurrentContext(() -> {
+            try {
+                created.complete(loadRange(resource, range, interval, freshFor));
+            } catch (RuntimeException | Error exception) {
+                created.completeExceptionally(exception);
+            } finally {
+                inFlight.remove(key, created);
+            }
+        });
+        try {
+            loadExecutor.execute(load);
+        } catch (RejectedExecutionException exception) {
+            inFlight.remove(key, created);
+            throw exception;
+        }
+        return await(created, properties.loadTimeout());
+    }
+
+    private Map<LocalDate, DayAvailability> loadRange(
+            SetupData.Resource resource,
+            BookingHorizon range,
+            int interval,
+            Duration freshFor) {
+        long loadGeneration = generation.get();
+        Instant loadedAt = Instant.now();
+        String startTime = LocalDateTime.of(range.firstDate(), LocalTime.MIDNIGHT).format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+        byte[] payload = client.checkAvailabilityPayload(range.days(), resource.guid(), startTime, interval, Map.of());
+        Map<LocalDate, DayAvailability> byDate = decoder.decode(payload, range, interval);
+        long version = versions.incrementAndGet();
+        byDate.replaceAll((date, availability) -> availability.withVersion(version, loadedAt));
+        store(resource, interval, byDate, freshFor, loadGeneration);
+        return byDate;
+    }
+
+    void invalidate(SetupData.Resource resource, LocalDate date) {
+        generation.incrementAndGet();
+        cache.keySet().removeIf(key -> {
+            boolean matches = key.guid().equals(resource.guid()) && key.date().equals(date);
+            if (matches) {
+                invalidations.increment();
+            }
+            return matches;
+        });
+    }
+
+    void invalidateAll() {
+        generation.incrementAndGet();
+        invalidations.add(cache.size());
+        cache.clear();
+    }
+
+    AvailabilityCacheStats stats() {
+        return new AvailabilityCacheStats(
+                hits.sum(),
+                staleHits.sum(),
+                misses.sum(),
+                coalesced.sum(),
+                evictions.sum(),
+                invalidations.sum(),
+                cache.size());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        loadExecutor.shutdownNow();
+    }
+
+    /**
+     * Waits for a result computed on another thread. The wait ends early when the calling thread is
+     * interrupted; the interrupt flag is kept so callers can tell a cancelled wait from a failure.
+     */
+    static <T> T await(CompletableFuture<T> future, Duration timeout) {
+        try {
+            return future.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while waiting for MakerSpace.");
+        } catch (TimeoutException exception) {
+            throw new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT, "MakerSpace did not respond in time.");
+        } catch (ExecutionException exception) {
+            if (exception.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (exception.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw new CompletionException(exception.getCause());
+        }
+    }
+
+    private void revalidate(SetupData.Resource resource, AvailabilityKey key, BookingHorizon range) {
+        RangeKey rangeKey = new RangeKey(key.guid(), range, key.interval(), authService.isFallbackAllowed());
+        if (!refreshing.add(rangeKey)) {
+            return;
+        }
+        Runnable refresh = authService.withCurrentContext(() -> {
+            try {
+                checkAvailabilityRange(resource, range, key.interval());
+            } catch (RuntimeException exception) {
+                log.warn("Unable to refresh availability for {} on {}", key.guid(), key.date(), exception);
+            } finally {
+                refreshing.remove(rangeKey);
+            }
+        });
+        loadExecutor.execute(refresh);
+    }
+
+    private void store(
+            SetupData.Resource resource,
+            int interval,
+            Map<LocalDate, DayAvailability> byDate,
+            Duration freshFor,
+            long loadGeneration) {
+        Instant now = Instant.now();
+        cache.entrySet().removeIf(entry -> {
+            boolean expired = !entry.getValue().isServableAt(now);
+            if (expired) {
+                evictions.increment();
+            }
+            return expired;
+        });
+        if (generation.get() != loadGeneration) {
+            return;
+        }
+        Instant freshUntil = now.plus(freshFor);
+        Instant servableUntil = freshUntil.plus(properties.staleTtl());
+        LocalDate today = LocalDate.now();
+        published.keySet().removeIf(key -> key.date().isBefore(today));
+        byDate.forEach((date, availability) -> {
+            AvailabilityKey key = new AvailabilityKey(resource.guid(), date, interval);
+            cache.put(key, new CachedAvailability(availability, freshUntil, servableUntil));
+            publishChanges(resource, key, availability);
+        });
+    }
+
+    private void publishChanges(SetupData.Resource resource, AvailabilityKey key, DayAvailability availability) {
+        SlotGrid previous = published.put(key, availability.grid());
+        if (previous == null || !stream.hasSubscribers()) {
+            return;
+        }
+        AvailabilityDelta delta = availability.grid().changesSince(resource.id(), availability.version(), previous);
+        if (delta != null) {
+            stream.publish(delta);
+        }
+    }
+
+    private record AvailabilityKey(String guid, LocalDate date, int interval) {
+    }
+
+    /**
+     * Identifies a range load. Loads that may fall back to the configured credentials are kept apart from
+     * loads under the logged-in user, so a caller never receives a result fetched with credentials it could
+     * not have used itself.
+     */
+    private record RangeKey(String guid, BookingHorizon range, int interval, boolean fallback) {
+    }
+
+    private record CachedAvailability(
+            DayAvailability availability,
+            Instant freshUntil,
+            Instant servableUntil) {
+
+        private boolean isFreshAt(Instant now) {
+            return now.isBefore(freshUntil);
+        }
+
+        private boolean isServableAt(Instant now) {
+            return now.isBefore(servableUntil);
+        }
+
+        private boolean isYoungerThan(Duration maxAge, Instant now) {
+            Instant loadedAt = availability.loadedAt();
+            return loadedAt != null && now.isBefore(loadedAt.plus(maxAge)) && isServableAt(now);
+        }
     }
 }
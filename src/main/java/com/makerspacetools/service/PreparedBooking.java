@@ -0,0 +1,50 @@
+package com.makerspacetools.service;
+
+import com.makerspacetools.makerspace.request.MakerSpaceBasketRequest;
+import com.makerspacetools.model.SetupData;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Booking prepared ahead of its window opening, ready to be submitted without further round trips.
+ */
+public final class PreparedBooking {
+
+    private final BookingTiming timing;
+    private final SetupData.Resource resource;
+    private final String uniqueId;
+    private final MakerSpaceBasketRequest basket;
+
+    PreparedBooking(BookingTiming timing, SetupData.Resource resource, String uniqueId, MakerSpaceBasketRequest basket) {
+        this.timing = timing;
+        this.resource = resource;
+        this.uniqueId = uniqueId;
+        this.basket = basket;
+    }
+
+    /**
+     * Returns the instant the slot becomes bookable.
+     *
+     * @return window opening instant
+     */
+    public Instant windowOpensAt() {
+        return timing.startInstant().minus(BookingHorizon.MAX_BOOKING_HOURS_AHEAD, ChronoUnit.HOURS);
+    }
+
+    BookingTiming timing() {
+        return timing;
+    }
+
+    SetupData.Resource resource() {
+        return resource;
+    }
+
+    String uniqueId() {
+        return uniqueId;
+    }
+
+    MakerSpaceBasketRequest basket() {
+        return basket;
+    }
+}
@@ -0,0 +1,207 @@
+package com.makerspacetools.service;
+
+import com.makerspacetools.api.AvailabilityDelta;
+import com.makerspacetools.api.AvailabilitySlot;
+import com.makerspacetools.model.WorkDaySchedule;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compact slot availability for a single day, one bit per slot.
+ * <p>
+ * Bit {@code i} describes the slot starting {@code i * intervalMinutes} after midnight, so range checks and
+ * business-hours filtering are plain mask operations.
+ *
+ * @param date date of the grid
+ * @param intervalMinutes slot interval in minutes
+ * @param knownMask slots returned by the MakerSpace API
+ * @param freeMask slots that are available and not booked
+ * @param bookedMask slots that are booked
+ */
+record SlotGrid(LocalDate date, int intervalMinutes, long knownMask, long freeMask, long bookedMask) {
+
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    /**
+     * Ctor.
+     */
+    SlotGrid {
+        if (intervalMinutes <= 0 || MINUTES_PER_DAY / intervalMinutes > Long.SIZE) {
+            throw new IllegalArgumentException("Unsupported slot interval: " + intervalMinutes);
+        }
+    }
+
+    static SlotGrid empty(LocalDate date, int intervalMinutes) {
+        return new SlotGrid(date, intervalMinutes, 0L, 0L, 0L);
+    }
+
+    /**
+     * Returns whether every slot of the range is free.
+     *
+     * @param startTime range start, must be aligned to the interval
+     * @param durationMinutes range length, must be a multiple of the interval
+     * @return true when the whole range can be booked
+     */
+    boolean isRangeFree(LocalTime startTime, int durationMinutes) {
+        int startMinute = startTime.toSecondOfDay() / 60;
+        if (startMinute % intervalMinutes != 0 || durationMinutes <= 0 || durationMinutes % intervalMinutes != 0) {
+            return false;
+        }
+        long mask = rangeMask(startMinute / intervalMinutes, durationMinutes / intervalMinutes);
+        return mask != 0L && (freeMask & mask) == mask;
+    }
+
+    /**
+     * Returns a copy limited to the working hours of the schedule.
+     *
+     * @param schedule working-hours schedule
+     * @return grid without slots outside the schedule
+     */
+    SlotGrid withinSchedule(WorkDaySchedule schedule) {
+        long mask = windowMask(schedule.windowFor(date.getDayOfWeek()));
+        return new SlotGrid(date, intervalMinutes, knownMask & mask, freeMask & mask, bookedMask & mask);
+    }
+
+    /**
+     * Returns the known slots in chronological order.
+     *
+     * @return availability slots
+     */
+    List<AvailabilitySlot> toSlots() {
+        List<AvailabilitySlot> slots = new ArrayList<>(Long.bitCount(knownMask));
+        long remaining = knownMask;
+        while (remaining != 0L) {
+            int index = Long.numberOfTrailingZeros(remaining);
+            long bit = 1L << index;
+            slots.add(new AvailabilitySlot(timeOf(index).toString(), (freeMask & bit) != 0L, (bookedMask & bit) != 0L));
+            remaining &= remaining - 1;
+        }
+        return slots;
+    }
+
+    /**
+     * Returns the contiguous runs of free slots in chronological order.
+     *
+     * @return free runs
+     */
+    List<FreeRun> freeRuns() {
+        List<FreeRun> runs = new ArrayList<>();
+        long remaining = freeMask;
+        while (remaining != 0L) {
+            int startIndex = Long.numberOfTrailingZeros(remaining);
+            int length = Math.min(Long.numberOfTrailingZeros(~(remaining >>> startIndex)), Long.SIZE - startIndex);
+            runs.add(new FreeRun(startIndex * intervalMinutes, (startIndex + length) * intervalMinutes));
+            remaining &= ~rangeMask(startIndex, length);
+        }
+        return runs;
+    }
+
+    /**
+     * Returns the slots whose free state differs from an earlier grid of the same day.
+     *
+     * @param resourceId resource the grids belong to
+     * @param version snapshot version of this grid
+     * @param previous earlier grid
+     * @return changed slots, or null when nothing changed
+     */
+    AvailabilityDelta changesSince(Long resourceId, long version, SlotGrid previous) {
+        long freed = freeMask & ~previous.freeMask;
+        long taken = previous.freeMask & ~freeMask;
+        if (freed == 0L && taken == 0L) {
+            return null;
+        }
+        return new AvailabilityDelta(resourceId, date, version, timesOf(freed), timesOf(taken));
+    }
+
+    LocalTime timeOf(int index) {
+        return LocalTime.ofSecondOfDay((long) index * intervalMinutes * 60);
+    }
+
+    int slotsPerDay() {
+        return MINUTES_PER_DAY / intervalMinutes;
+    }
+
+    private List<String> timesOf(long mask) {
+        List<String> times = new ArrayList<>(Long.bitCount(mask));
+        long remaining = mask;
+        while (remaining != 0L) {
+            times.add(timeOf(Long.numberOfTrailingZeros(remaining)).toString());
+            remaining &= remaining - 1;
+        }
+        return times;
+    }
+
+    private long windowMask(WorkDaySchedule.TimeWindow window) {
+        int startIndex = ceilDiv(window.start().toSecondOfDay() / 60, intervalMinutes);
+        int endIndex = ceilDiv(window.end().toSecondOfDay() / 60, intervalMinutes);
+        return endIndex <= startIndex ? 0L : rangeMask(startIndex, endIndex - startIndex);
+    }
+
+    private long rangeMask(int startIndex, int count) {
+        if (startIndex < 0 || count <= 0 || startIndex + count > slotsPerDay()) {
+            return 0L;
+        }
+        long bits = count == Long.SIZE ? -1L : (1L << count) - 1;
+        return bits << startIndex;
+    }
+
+    private static int ceilDiv(int value, int divisor) {
+        return (value + divisor - 1) / divisor;
+    }
+
+    /**
+     * Contiguous free time within a day.
+     *
+     * @param startMinute start, in minutes after midnight
+     * @param endMinute end, in minutes after midnight, exclusive
+     */
+    record FreeRun(int startMinute, int endMinute) {
+
+        int lengthMinutes() {
+            return endMinute - startMinute;
+        }
+    }
+
+    /**
+     * Accumulates slots for one day before the grid is built.
+     */
+    static final class Builder {
+
+        private final LocalDate date;
+        private final int intervalMinutes;
+        private long knownMask;
+        private long freeMask;
+        private long bookedMask;
+
+        Builder(LocalDate date, int intervalMinutes) {
+            this.date = date;
+            this.intervalMinutes = intervalMinutes;
+        }
+
+        Builder add(LocalTime time, boolean available, boolean booked) {
+            return add(time.toSecondOfDay() / 60, available, booked);
+        }
+
+        Builder add(int minute, boolean available, boolean booked) {
+            if (minute < 0 || minute >= MINUTES_PER_DAY || minute % intervalMinutes != 0) {
+                return this;
+            }
+            long bit = 1L << (minute / intervalMinutes);
+            knownMask |= bit;
+            if (available && !booked) {
+                freeMask |= bit;
+            }
+            if (booked) {
+                bookedMask |= bit;
+            }
+            return this;
+        }
+
+        SlotGrid build() {
+            return new SlotGrid(date, intervalMinutes, knownMask, freeMask, bookedMask);
+        }
+    }
+}
@@ -50,6 +50,14 @@ export function createApi(options = {}) {
         return fetchJson(`/api/machines/availability?date=${encodeURIComponent(date)}`);
     }
 
+    function subscribeAvailability(onDelta) {
+        const source = new EventSource("/api/machines/availability/stream");
+        source.addEventListener("availability", (event) => {
+            onDelta(JSON.parse(event.data));
+        });
+        return source;
+    }
+
     async function createBooking(payload) {
         const response = await fetch("/api/machines/bookings", {
             method: "POST",
@@ -124,6 +132,7 @@ export function createApi(options = {}) {
     return {
         setUnauthorizedHandler,
         getAvailability,
+        subscribeAvailability,
         createBooking,
         getJobs,
         createJob,
@@ -205,11 +205,13 @@ export function createAutoBooking({
 
             const meta = document.createElement("div");
             meta.className = "attempt-meta";
-            meta.textContent = formatDateTime(attempt.occurredAt);
+            meta.textContent = attempt.fireOffsetMicros === null || attempt.fireOffsetMicros === undefined
+                ? formatDateTime(attempt.occurredAt)
+                : `${formatDateTime(attempt.occurredAt)} · fired ${(attempt.fireOffsetMicros / 1000).toFixed(1)} ms after window open`;
 
             const status = document.createElement("div");
             status.className = "attempt-status";
-            status.textContent = attempt.success ? "Success" : "Failed";
+            status.textContent = attempt.success ? "Success" : attempt.skipped ? "Skipped" : "Failed";
             if (!attempt.success) {
                 status.classList.add("is-failed");
             }
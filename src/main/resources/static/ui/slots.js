@@ -50,6 +50,8 @@ export function createSlots({ api, config, showToast, onSelectionChange, onBooki
     let selectedStartTime = null;
     let selectedEndTime = null;
     let currentSlots = [];
+    let currentResourceId = null;
+    let currentSnapshotVersion = null;
     let intervalMinutes = 30;
     let slotMap = new Map();
     let isAutoMode = false;
@@ -58,6 +60,39 @@ export function createSlots({ api, config, showToast, onSelectionChange, onBooki
         if (refreshBookings) {
             refreshBookings.addEventListener("click", () => loadPendingBookings());
         }
+        api.subscribeAvailability(applyAvailabilityDelta);
+    }
+
+    function applyAvailabilityDelta(delta) {
+        if (!selectedDate || !delta || delta.date !== formatDate(selectedDate) || currentSlots.length === 0) {
+            return;
+        }
+        if (currentResourceId !== null && delta.resourceId !== currentResourceId) {
+            return;
+        }
+        let changed = false;
+        const update = (times, available, booked) => {
+            (times || []).forEach((time) => {
+                const slot = slotMap.get(time);
+                if (slot && !slot.boundary) {
+                    slot.available = available;
+                    slot.booked = booked;
+                    changed = true;
+                }
+            });
+        };
+        update(delta.freed, true, false);
+        update(delta.booked, false, true);
+        currentSnapshotVersion = delta.snapshotVersion ?? currentSnapshotVersion;
+        if (!changed) {
+            return;
+        }
+        if (selectedStartTime && selectedEndTime && !isRangeAvailable(selectedStartTime, selectedEndTime)) {
+            resetSelection();
+            setStatus("Availability changed. Some selected slots are no longer free.", false);
+        }
+        renderSlots();
+        updateBookButton();
     }
 
     function setAutoMode(value) {
@@ -114,6 +149,8 @@ export function createSlots({ api, config, showToast, onSelectionChange, onBooki
         try {
             const payload = await api.getAvailability(formatDate(date));
             resourceName.textContent = payload.resourceName || "Machine";
+            currentResourceId = payload.resourceId ?? null;
+            currentSnapshotVersion = payload.snapshotVersion ?? null;
             const rawSlots = Array.isArray(payload.slots) ? payload.slots : [];
             currentSlots = normalizeSlots(rawSlots, workingHours);
             currentSlots.sort((a, b) => a.time.localeCompare(b.time));
@@ -602,7 +639,9 @@ export function createSlots({ api, config, showToast, onSelectionChange, onBooki
             const result = await api.createBooking({
                 date: formatDate(selectedDate),
                 startTime: selectedStartTime,
-                durationMinutes: validation.durationMinutes
+                durationMinutes: validation.durationMinutes,
+                resourceId: currentResourceId,
+                snapshotVersion: currentSnapshotVersion
             });
             if (result && result.unauthorized) {
                 return;
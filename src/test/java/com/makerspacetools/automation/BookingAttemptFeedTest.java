@@ -0,0 +1,59 @@
+package com.makerspacetools.automation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BookingAttemptFeedTest {
+
+    private static final int CAPACITY = 64;
+
+    @Test
+    void concurrentWritersLeaveTheNewestAttemptInEverySlot() throws Exception {
+        int writers = 8;
+        int perWriter = 50_000;
+        List<UUID> jobIds = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+        BookingAttemptFeed feed = new BookingAttemptFeed(CAPACITY);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> done = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(writers)) {
+            for (int writer = 0; writer < writers; writer++) {
+                UUID jobId = jobIds.get(writer % jobIds.size());
+                done.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < perWriter; i++) {
+                        feed.add(BookingAttempt.builder().jobId(jobId).build());
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : done) {
+                future.get();
+            }
+        }
+        long total = (long) writers * perWriter;
+
+        for (long position = total - CAPACITY; position < total; position++) {
+            BookingAttempt attempt = feed.get(position);
+            assertThat(attempt).as("attempt %d", position).isNotNull();
+            assertThat(feed.sequenceOf(attempt.id())).isEqualTo(position);
+        }
+        int indexed = 0;
+        for (UUID jobId : jobIds) {
+            for (long position : feed.candidates(jobId, -1, Long.MAX_VALUE)) {
+                assertThat(feed.get(position)).as("indexed attempt %d", position).isNotNull();
+                indexed++;
+            }
+        }
+        assertThat(indexed).isEqualTo(CAPACITY);
+    }
+}
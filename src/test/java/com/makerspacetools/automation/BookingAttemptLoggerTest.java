@@ -0,0 +1,108 @@
+package com.makerspacetools.automation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BookingAttemptLoggerTest {
+
+    private static final int FEED_SIZE = 8;
+
+    private final UUID jobA = UUID.randomUUID();
+    private final UUID jobB = UUID.randomUUID();
+    private final List<BookingAttempt> added = new ArrayList<>();
+
+    @TempDir
+    Path directory;
+
+    private BookingAttemptHistory history;
+    private BookingAttemptLogger logger;
+
+    @BeforeEach
+    void fillFeedPastItsCapacity() {
+        AutomationProperties properties = new AutomationProperties(
+                null, null, null, null, FEED_SIZE, 0, null, null, null, null,
+                new AutomationProperties.History(directory, null, null));
+        history = new BookingAttemptHistory(properties, new ObjectMapper().findAndRegisterModules());
+        logger = new BookingAttemptLogger(properties, history);
+        for (int i = 0; i < 20; i++) {
+            BookingAttempt attempt = BookingAttempt.builder().jobId(i % 2 == 0 ? jobA : jobB).success(i % 4 == 0).build();
+            added.add(attempt);
+            logger.add(attempt);
+        }
+    }
+
+    @AfterEach
+    void closeHistory() {
+        history.shutdown();
+    }
+
+    @Test
+    void keepsTheNewestAttemptsOnceTheRingWrapsAround() {
+        assertThat(logger.list(100)).containsExactlyElementsOf(newest(FEED_SIZE, null));
+    }
+
+    @Test
+    void pagesThroughAJobWithCursors() {
+        List<BookingAttempt> seen = new ArrayList<>();
+        Long cursor = null;
+        int pages = 0;
+        do {
+            BookingAttemptPage page = logger.query(BookingAttemptQuery.builder().jobId(jobA).cursor(cursor).limit(3).build());
+            seen.addAll(page.attempts());
+            cursor = page.nextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(pages).isEqualTo(2);
+        assertThat(seen).containsExactlyElementsOf(newest(FEED_SIZE, jobA));
+    }
+
+    @Test
+    void returnsOnlyAttemptsNewerThanSince() {
+        BookingAttempt since = added.get(added.size() - 4);
+
+        BookingAttemptPage page = logger.query(BookingAttemptQuery.builder().since(since.id()).limit(100).build());
+
+        assertThat(page.attempts()).containsExactlyElementsOf(newest(3, null));
+        assertThat(page.nextCursor()).isNull();
+    }
+
+    @Test
+    void rejectsSinceThatHasLeftTheFeed() {
+        BookingAttempt evicted = added.getFirst();
+
+        assertThatThrownBy(() -> logger.query(BookingAttemptQuery.builder().since(evicted.id()).limit(10).build()))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        exception -> assertThat(exception.getStatusCode()).isEqualTo(HttpStatus.GONE));
+    }
+
+    @Test
+    void filtersByOutcome() {
+        BookingAttemptPage page = logger.query(BookingAttemptQuery.builder().success(true).limit(100).build());
+
+        assertThat(page.attempts()).containsExactlyElementsOf(
+                newest(FEED_SIZE, null).stream().filter(BookingAttempt::success).toList());
+    }
+
+    /**
+     * Returns the newest of the last {@code window} added attempts, newest first, optionally of one job.
+     */
+    private List<BookingAttempt> newest(int window, UUID jobId) {
+        return added.subList(added.size() - window, added.size()).reversed().stream()
+                .filter(attempt -> jobId == null || jobId.equals(attempt.jobId()))
+                .toList();
+    }
+}
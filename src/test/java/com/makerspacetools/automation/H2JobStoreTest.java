@@ -0,0 +1,81 @@
+package com.makerspacetools.automation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class H2JobStoreTest {
+
+    private static final int JOBS = 30;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @TempDir
+    Path directory;
+
+    private List<AutoBookingJob> seeded;
+
+    @BeforeEach
+    void seedJobsFile() throws Exception {
+        seeded = new ArrayList<>(JOBS);
+        LocalDate startDate = LocalDate.of(2026, 1, 5);
+        for (int i = 0; i < JOBS; i++) {
+            LocalDate date = startDate.plusDays(i % 7);
+            seeded.add(AutoBookingJob.builder()
+                    .startDate(date)
+                    .dayOfWeek(date.getDayOfWeek())
+                    .startTime(LocalTime.of(8 + i % 10, 0))
+                    .endTime(LocalTime.of(9 + i % 10, 0))
+                    .resourceId((long) (i % 5))
+                    .status(i % 3 == 0 ? AutoBookingJobStatus.INACTIVE : AutoBookingJobStatus.ACTIVE)
+                    .build());
+        }
+        objectMapper.writeValue(jobsFile().toFile(), seeded);
+    }
+
+    @Test
+    void importsTheJsonJobsOnFirstStart() {
+        H2JobStore store = newStore();
+        try {
+            assertThat(store.list()).extracting(AutoBookingJob::id)
+                    .containsExactlyInAnyOrderElementsOf(seeded.stream().map(AutoBookingJob::id).toList());
+            assertThat(store.list(AutoBookingJobStatus.ACTIVE)).hasSize(JOBS - JOBS / 3);
+        } finally {
+            store.shutdown();
+        }
+    }
+
+    @Test
+    void doesNotImportAgainAfterEveryJobWasDeleted() {
+        H2JobStore store = newStore();
+        store.list().forEach(job -> store.delete(job.id()));
+        store.shutdown();
+
+        H2JobStore restarted = newStore();
+        try {
+            assertThat(restarted.list()).isEmpty();
+        } finally {
+            restarted.shutdown();
+        }
+    }
+
+    private H2JobStore newStore() {
+        AutomationProperties properties = new AutomationProperties(
+                jobsFile(), AutomationProperties.JobStoreType.H2, directory.resolve("auto-booking-jobs"),
+                null, 0, 0, null, null, null, null, null);
+        return new H2JobStore(properties, objectMapper);
+    }
+
+    private Path jobsFile() {
+        return directory.resolve("auto-booking-jobs.json");
+    }
+}
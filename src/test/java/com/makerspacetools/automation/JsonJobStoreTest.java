@@ -0,0 +1,99 @@
+package com.makerspacetools.automation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JsonJobStoreTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void replaysTheJournalOverTheSnapshotAfterACrash() {
+        JsonJobStore store = newStore();
+        AutoBookingJob kept = store.add(job(LocalTime.of(9, 0)));
+        AutoBookingJob deleted = store.add(job(LocalTime.of(10, 0)));
+        store.update(kept.withStatus(AutoBookingJobStatus.INACTIVE));
+        store.delete(deleted.id());
+
+        JsonJobStore restarted = newStore();
+
+        assertThat(restarted.list()).extracting(AutoBookingJob::id).containsExactly(kept.id());
+        assertThat(restarted.find(kept.id())).map(AutoBookingJob::status).contains(AutoBookingJobStatus.INACTIVE);
+    }
+
+    @Test
+    void stopsReplayAtATornLine() throws Exception {
+        JsonJobStore store = newStore();
+        AutoBookingJob first = store.add(job(LocalTime.of(9, 0)));
+        AutoBookingJob second = store.add(job(LocalTime.of(10, 0)));
+        long validLength = Files.size(journal());
+        appendToJournal("{\"job\":{\"id\":\"" + UUID.randomUUID());
+
+        Map<UUID, AutoBookingJob> jobs = new LinkedHashMap<>();
+        JsonJobStore.JournalReplay replay = JsonJobStore.read(jobsFile(), objectMapper, jobs);
+
+        assertThat(jobs).containsOnlyKeys(first.id(), second.id());
+        assertThat(replay.entries()).isEqualTo(2);
+        assertThat(replay.validLength()).isEqualTo(validLength);
+        assertThat(replay.torn()).isTrue();
+    }
+
+    @Test
+    void cutsATornTailSoLaterAppendsAreReplayed() throws Exception {
+        JsonJobStore store = newStore();
+        AutoBookingJob first = store.add(job(LocalTime.of(9, 0)));
+        store.shutdown();
+        appendToJournal("{\"job\":{\"id\":\"" + UUID.randomUUID());
+
+        JsonJobStore repaired = newStore();
+        assertThat(Files.size(journal())).isZero();
+        AutoBookingJob second = repaired.add(job(LocalTime.of(10, 0)));
+
+        assertThat(newStore().list()).extracting(AutoBookingJob::id).containsExactlyInAnyOrder(first.id(), second.id());
+    }
+
+    private JsonJobStore newStore() {
+        AutomationProperties properties = new AutomationProperties(
+                jobsFile(), null, null, null, 0, 0, null, null, null, null, null);
+        return new JsonJobStore(properties, objectMapper);
+    }
+
+    private Path jobsFile() {
+        return directory.resolve("auto-booking-jobs.json");
+    }
+
+    private Path journal() {
+        return directory.resolve("auto-booking-jobs.json.journal");
+    }
+
+    private void appendToJournal(String content) throws Exception {
+        Files.writeString(journal(), content, StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+    }
+
+    private static AutoBookingJob job(LocalTime startTime) {
+        LocalDate startDate = LocalDate.of(2026, 3, 2);
+        return AutoBookingJob.builder()
+                .startDate(startDate)
+                .dayOfWeek(startDate.getDayOfWeek())
+                .startTime(startTime)
+                .endTime(startTime.plusHours(1))
+                .resourceId(1L)
+                .build();
+    }
+}
@@ -0,0 +1,81 @@
+package com.makerspacetools.automation;
+
+import com.makerspacetools.auth.MakerSpaceAuthService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ScheduledBookingExecutorTest {
+
+    private final AutoBookingJobService jobService = mock(AutoBookingJobService.class);
+    private final AutoBookingScheduler scheduler = mock(AutoBookingScheduler.class);
+    private final MakerSpaceAuthService authService = mock(MakerSpaceAuthService.class);
+    private final BookingPreArmer preArmer = mock(BookingPreArmer.class);
+    private final AtomicBoolean armed = new AtomicBoolean();
+    private final LocalDate targetDate = LocalDate.now().plusDays(7);
+    private final AutoBookingJob job = AutoBookingJob.builder()
+            .startDate(targetDate)
+            .dayOfWeek(targetDate.getDayOfWeek())
+            .startTime(LocalTime.of(10, 0))
+            .endTime(LocalTime.of(11, 0))
+            .resourceId(1L)
+            .build();
+
+    private ScheduledBookingExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        when(jobService.listJobDefinitions(AutoBookingJobStatus.ACTIVE)).thenReturn(List.of(job));
+        when(jobService.findJobDefinition(job.id())).thenReturn(Optional.of(job));
+        when(scheduler.resolveTargetDate(eq(job), any())).thenReturn(targetDate);
+        when(scheduler.nextActionAt(eq(job), eq(targetDate), any(), any(), any())).thenAnswer(invocation -> Instant.now());
+        when(preArmer.armingLead()).thenReturn(Duration.ofSeconds(5));
+        when(preArmer.isArmed(job.id(), targetDate)).thenAnswer(invocation -> armed.get());
+        when(preArmer.armIfOpeningSoon(eq(job), eq(targetDate), any(), any())).thenAnswer(invocation -> {
+            armed.set(true);
+            return true;
+        });
+        AutomationProperties properties = new AutomationProperties(
+                null, null, null, null, 0, 0, null, null, null, null, null);
+        executor = new ScheduledBookingExecutor(jobService, scheduler, authService, preArmer, properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void armedJobWaitsForThePreArmerBeforeItIsPlannedAgain() {
+        executor.start();
+
+        verify(preArmer, timeout(1000)).armIfOpeningSoon(eq(job), eq(targetDate), any(), any());
+        verify(preArmer, after(300).times(1)).armIfOpeningSoon(eq(job), eq(targetDate), any(), any());
+        verify(scheduler, times(1)).nextActionAt(eq(job), eq(targetDate), any(), any(), any());
+        verify(scheduler, never()).attemptJob(any(), any(), any());
+
+        armed.set(false);
+        executor.onJobChanged(new AutoBookingJobChangedEvent(job.id()));
+
+        verify(preArmer, timeout(1000).times(2)).armIfOpeningSoon(eq(job), eq(targetDate), any(), any());
+        verify(scheduler, times(2)).nextActionAt(eq(job), eq(targetDate), any(), any(), any());
+    }
+}
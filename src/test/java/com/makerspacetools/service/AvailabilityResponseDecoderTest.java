@@ -0,0 +1,37 @@
+package com.makerspacetools.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.makerspacetools.api.AvailabilitySlot;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AvailabilityResponseDecoderTest {
+
+    private final AvailabilityResponseDecoder decoder = new AvailabilityResponseDecoder(new ObjectMapper());
+
+    @Test
+    void skipsSlotsWithUnreadableDateTimes() {
+        LocalDate date = LocalDate.of(2026, 3, 2);
+        String payload = """
+                {"Resource": {"Name": "Laser"}, "AvailableSlots": [
+                  {"DateTime": "2026-03-02T10:00:00", "Available": true, "Booked": false},
+                  {"DateTime": "2026-13-45T10:00:00", "Available": true, "Booked": false},
+                  {"DateTime": "not a date", "Available": true, "Booked": false},
+                  {"DateTime": "2026-03-02T10:30:00", "Available": false, "Booked": true}
+                ]}
+                """;
+
+        Map<LocalDate, DayAvailability> byDate = decoder.decode(
+                payload.getBytes(StandardCharsets.UTF_8), new BookingHorizon(date, date), 30);
+
+        assertThat(byDate.get(date).resourceName()).isEqualTo("Laser");
+        assertThat(byDate.get(date).grid().toSlots()).containsExactly(
+                new AvailabilitySlot("10:00", true, false),
+                new AvailabilitySlot("10:30", false, true));
+    }
+}
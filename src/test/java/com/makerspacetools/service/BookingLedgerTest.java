@@ -0,0 +1,113 @@
+package com.makerspacetools.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.makerspacetools.model.SetupData;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BookingLedgerTest {
+
+    private static final SetupData.Resource LASER = new SetupData.Resource("laser", 1L, "Laser");
+    private static final SetupData.Resource PRINTER = new SetupData.Resource("printer", 2L, "Printer");
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void retriesReuseTheUniqueIdOfAPendingSubmission() {
+        BookingLedger ledger = newLedger();
+        BookingTiming timing = tomorrowAt(10);
+
+        BookingLedger.Claim first = ledger.claim(LASER, timing);
+        assertThat(first.state()).isNull();
+        assertThat(ledger.claim(LASER, timing)).isNull();
+        ledger.markPending(first);
+        ledger.release(first);
+
+        BookingLedger.Claim retry = ledger.claim(LASER, timing);
+        assertThat(retry.uniqueId()).isEqualTo(first.uniqueId());
+        assertThat(retry.state()).isEqualTo(BookingLedgerEntry.State.PENDING);
+    }
+
+    @Test
+    void confirmedSubmissionsSurviveARestart() {
+        BookingLedger ledger = newLedger();
+        BookingTiming timing = tomorrowAt(10);
+        BookingLedger.Claim claim = ledger.claim(LASER, timing);
+        ledger.markPending(claim);
+        ledger.confirm(claim);
+        ledger.release(claim);
+
+        BookingLedger restarted = newLedger();
+        BookingLedger.Claim repeated = restarted.claim(LASER, timing);
+
+        assertThat(repeated.uniqueId()).isEqualTo(claim.uniqueId());
+        assertThat(repeated.state()).isEqualTo(BookingLedgerEntry.State.CONFIRMED);
+    }
+
+    @Test
+    void slotsAreKeyedByMachine() {
+        BookingLedger ledger = newLedger();
+        BookingTiming timing = tomorrowAt(10);
+        BookingLedger.Claim laser = ledger.claim(LASER, timing);
+        ledger.markPending(laser);
+
+        BookingLedger.Claim printer = ledger.claim(PRINTER, timing);
+
+        assertThat(printer.state()).isNull();
+        assertThat(printer.uniqueId()).isNotEqualTo(laser.uniqueId());
+    }
+
+    @Test
+    void forgetDropsTheSlotOnOneMachineOnly() {
+        BookingLedger ledger = newLedger();
+        BookingTiming timing = tomorrowAt(10);
+        BookingLedger.Claim laser = ledger.claim(LASER, timing);
+        BookingLedger.Claim printer = ledger.claim(PRINTER, timing);
+        ledger.markPending(laser);
+        ledger.markPending(printer);
+        ledger.confirm(printer);
+
+        ledger.forget(LASER.id(), timing.startDateTime(), timing.endDateTime());
+
+        BookingLedger restarted = newLedger();
+        assertThat(restarted.find(LASER, timing)).isNull();
+        assertThat(restarted.find(PRINTER, timing).state()).isEqualTo(BookingLedgerEntry.State.CONFIRMED);
+    }
+
+    @Test
+    void failsOnAnUnreadableLedger() throws Exception {
+        Files.writeString(ledgerFile(), "[{\"resourceId\":");
+
+        assertThatThrownBy(this::newLedger).isInstanceOf(IllegalStateException.class);
+    }
+
+    private BookingLedger newLedger() {
+        return new BookingLedger(new BookingLedgerProperties(ledgerFile()), objectMapper);
+    }
+
+    private Path ledgerFile() {
+        return directory.resolve("booking-ledger.json");
+    }
+
+    private static BookingTiming tomorrowAt(int hour) {
+        LocalDate date = LocalDate.now().plusDays(1);
+        LocalTime startTime = LocalTime.of(hour, 0);
+        LocalDateTime start = LocalDateTime.of(date, startTime);
+        LocalDateTime end = start.plusHours(1);
+        ZoneId zoneId = ZoneId.systemDefault();
+        return new BookingTiming(date, startTime, 60, start, end, start.atZone(zoneId).toInstant(), end.atZone(zoneId).toInstant());
+    }
+}